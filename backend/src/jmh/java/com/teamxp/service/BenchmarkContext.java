@@ -0,0 +1,60 @@
+package com.teamxp.service;
+
+import com.teamxp.Application;
+import com.teamxp.BenchmarkDataLoader;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.sql.DataSource;
+import java.io.OutputStream;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+// Boots the application without the web layer on its own embedded H2 database
+final class BenchmarkContext {
+
+    private BenchmarkContext() {}
+
+    static ConfigurableApplicationContext start(String databaseName) {
+        return new SpringApplicationBuilder(Application.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:" + databaseName + ";DB_CLOSE_DELAY=-1",
+                        "spring.jpa.show-sql=false",
+                        "spring.jpa.properties.hibernate.format_sql=false",
+                        "logging.level.root=WARN")
+                .run();
+    }
+
+    // Replaces the seeded sample contacts with size generated ones and rebuilds the search index
+    static void load(ConfigurableApplicationContext context, int size) throws SQLException {
+        try (Connection connection = context.getBean(DataSource.class).getConnection()) {
+            BenchmarkDataLoader.deleteContacts(connection);
+            BenchmarkDataLoader.insertContacts(connection, size);
+        }
+        context.getBean(ContactServiceImpl.class).rebuildSearchIndex();
+    }
+
+    static void clear(ConfigurableApplicationContext context) throws SQLException {
+        try (Connection connection = context.getBean(DataSource.class).getConnection()) {
+            BenchmarkDataLoader.deleteContacts(connection);
+        }
+        context.getBean(ContactServiceImpl.class).rebuildSearchIndex();
+    }
+
+    // Counts and discards the bytes of an export
+    static final class CountingOutputStream extends OutputStream {
+        long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.teamxp.service;
+
+import com.teamxp.dto.ContactDTO;
+import com.teamxp.dto.ContactPageDTO;
+import com.teamxp.entity.Contact;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+// Entity to DTO mapping: one detached contact, and a full page of stored contacts from the middle
+// of an embedded H2 holding size contacts, whose collections are loaded in batches
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ContactConversionBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    private ConfigurableApplicationContext context;
+    private ContactService contactService;
+    private ContactServiceImpl converter;
+    private Contact contact;
+    private long middleCursor;
+
+    @Setup
+    public void setUp() throws Exception {
+        context = BenchmarkContext.start("jmh-conversion-" + size);
+        BenchmarkContext.load(context, size);
+        contactService = context.getBean(ContactService.class);
+        // IDs run from 1 to size, start the page far from both ends of the ID index
+        middleCursor = Math.max(0, size / 2 - ContactServiceImpl.MAX_PAGE_SIZE / 2);
+
+        converter = new ContactServiceImpl();
+        contact = new Contact();
+        contact.setId(42L);
+        contact.setName("John Smith");
+        contact.setPhones(Arrays.asList("(123) 456-7890", "098-765-4321"));
+        contact.setEmails(Arrays.asList("john.smith@example.com", "john@work.com"));
+        contact.setAddress("123 Main Street, New York, NY 10001");
+        contact.setIsFavorite(true);
+        contact.setTags(Arrays.asList("Family", "Work", "VIP"));
+        contact.setNotes("Important client. Meeting scheduled for next week.");
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public ContactDTO convertToDTO() {
+        return converter.convertToDTO(contact);
+    }
+
+    @Benchmark
+    public ContactPageDTO convertStoredPage() {
+        return contactService.getContactsPage(middleCursor, ContactServiceImpl.MAX_PAGE_SIZE);
+    }
+}
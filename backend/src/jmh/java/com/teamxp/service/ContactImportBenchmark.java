@@ -0,0 +1,64 @@
+package com.teamxp.service;
+
+import com.teamxp.dto.ImportSummaryDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.util.concurrent.TimeUnit;
+
+// Excel import of a size row workbook into an empty store; one import per iteration, the store
+// is emptied in between
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class ContactImportBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    private ConfigurableApplicationContext context;
+    private ContactService contactService;
+    private byte[] workbook;
+
+    @Setup
+    public void setUp() throws Exception {
+        context = BenchmarkContext.start("jmh-import-" + size);
+        contactService = context.getBean(ContactService.class);
+        // The workbook to import is the export of a generated store
+        BenchmarkContext.load(context, size);
+        workbook = contactService.exportContactsToExcel();
+    }
+
+    @Setup(Level.Iteration)
+    public void emptyStore() throws Exception {
+        BenchmarkContext.clear(context);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public ImportSummaryDTO importContactsFromExcel() {
+        MockMultipartFile file = new MockMultipartFile("file", "contacts.xlsx",
+                "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet", workbook);
+        return contactService.importContactsFromExcel(file);
+    }
+}
@@ -0,0 +1,77 @@
+package com.teamxp.service;
+
+import com.teamxp.dto.ContactPageDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+// Read paths against an embedded H2 holding size contacts
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ContactServiceBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    private ConfigurableApplicationContext context;
+    private ContactService contactService;
+
+    @Setup
+    public void setUp() throws Exception {
+        context = BenchmarkContext.start("jmh-read-" + size);
+        BenchmarkContext.load(context, size);
+        contactService = context.getBean(ContactService.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public ContactPageDTO searchContacts() {
+        return contactService.searchContacts("contact 12", null, 50);
+    }
+
+    @Benchmark
+    public ContactPageDTO filterContactsByTags() {
+        return contactService.filterContacts(
+                Arrays.asList("Group1", "Group2", "Group3"), false, true, null, 50);
+    }
+
+    @Benchmark
+    public ContactPageDTO sortedPageByName() {
+        return contactService.getContactsPage("name", null, 50);
+    }
+
+    @Benchmark
+    public long exportContactsToExcel() {
+        BenchmarkContext.CountingOutputStream out = new BenchmarkContext.CountingOutputStream();
+        contactService.exportContactsToExcel(out);
+        return out.count;
+    }
+
+    @Benchmark
+    public long exportContactsToJson() {
+        BenchmarkContext.CountingOutputStream out = new BenchmarkContext.CountingOutputStream();
+        contactService.exportContactsToJson(out);
+        return out.count;
+    }
+}
@@ -0,0 +1,125 @@
+package com.teamxp.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.teamxp.dto.ContactDTO;
+import com.teamxp.dto.ContactPageDTO;
+import com.teamxp.dto.ContactRequestDTO;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+// Serialization CPU of one full contact page per wire format, with and without gzip;
+// the payload size of every combination is reported as the payloadBytes secondary result
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WireFormatBenchmark {
+
+    @Param({"json", "smile", "cbor"})
+    public String format;
+
+    @Param({"false", "true"})
+    public boolean gzip;
+
+    private ObjectMapper mapper;
+    private ContactPageDTO page;
+    private byte[] payload;
+
+    @Setup
+    public void setUp() throws IOException {
+        mapper = mapper(format);
+        page = new ContactPageDTO(contacts(ContactServiceImpl.MAX_PAGE_SIZE), null,
+                ContactServiceImpl.MAX_PAGE_SIZE);
+        payload = write();
+    }
+
+    // Assigned rather than summed, so the result shows the size of one page, not a total
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class PayloadSize {
+        public long payloadBytes;
+    }
+
+    @Benchmark
+    public byte[] serialize(PayloadSize size) throws IOException {
+        byte[] bytes = write();
+        size.payloadBytes = bytes.length;
+        return bytes;
+    }
+
+    @Benchmark
+    public ContactPageDTO deserialize(PayloadSize size) throws IOException {
+        size.payloadBytes = payload.length;
+        try (InputStream in = gzip
+                ? new GZIPInputStream(new ByteArrayInputStream(payload))
+                : new ByteArrayInputStream(payload)) {
+            return mapper.readValue(in, ContactPageDTO.class);
+        }
+    }
+
+    private byte[] write() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream out = gzip ? new GZIPOutputStream(bytes) : bytes) {
+            mapper.writeValue(out, page);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static ObjectMapper mapper(String format) {
+        switch (format) {
+            case "smile":
+                return Jackson2ObjectMapperBuilder.smile().build();
+            case "cbor":
+                return Jackson2ObjectMapperBuilder.cbor().build();
+            default:
+                return Jackson2ObjectMapperBuilder.json().build();
+        }
+    }
+
+    private static List<ContactDTO> contacts(int count) {
+        ContactDataGenerator generator = new ContactDataGenerator(42);
+        Date now = new Date();
+        List<ContactDTO> contacts = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            ContactRequestDTO request = generator.next();
+            ContactDTO contact = new ContactDTO();
+            contact.setId((long) i);
+            contact.setName(request.getName());
+            contact.setPhones(request.getPhones());
+            contact.setEmails(request.getEmails());
+            contact.setAddress(request.getAddress());
+            contact.setIsFavorite(request.getIsFavorite());
+            contact.setTags(request.getTags());
+            contact.setNotes(request.getNotes());
+            contact.setCreatedAt(now);
+            contact.setLastModified(now);
+            contacts.add(contact);
+        }
+        return contacts;
+    }
+}
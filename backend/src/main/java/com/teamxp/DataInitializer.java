@@ -1,8 +1,11 @@
 package com.teamxp;
 
 import com.teamxp.entity.Contact;
+import com.teamxp.dto.ImportSummaryDTO;
 import com.teamxp.repository.ContactRepository;
+import com.teamxp.service.ContactService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.stereotype.Component;
 
@@ -14,10 +17,30 @@ public class DataInitializer implements CommandLineRunner {
     @Autowired
     private ContactRepository contactRepository;
 
+    @Autowired
+    private ContactService contactService;
+
+    // Synthetic contacts to create instead of the samples, 0 keeps the samples
+    @Value("${contacts.generator.startup-count:0}")
+    private int generatedContacts;
+
+    @Value("${contacts.generator.seed:42}")
+    private long generatorSeed;
+
     @Override
     public void run(String... args) throws Exception {
-        // Clear existing data
-        contactRepository.deleteAll();
+        // Only seed an empty store, a persistent database keeps its contacts across restarts
+        if (contactRepository.count() > 0) {
+            System.out.println("Existing contacts found, skipping sample data");
+            return;
+        }
+
+        if (generatedContacts > 0) {
+            ImportSummaryDTO summary =
+                    contactService.generateContacts(generatedContacts, generatorSeed);
+            System.out.println("Generated " + summary.getImported() + " synthetic contacts");
+            return;
+        }
 
         // Create sample contact 1
         Contact contact1 = new Contact();
@@ -17,7 +17,8 @@ public class CorsConfig {
                         .allowedOrigins("http://127.0.0.1:5500", "http://localhost:5500", "http://localhost:8000")
                         .allowedMethods("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS")
                         .allowedHeaders("*")
-                        .exposedHeaders("Content-Disposition") // 重要：暴露Content-Disposition头部
+                        // 重要：暴露Content-Disposition和ETag头部
+                        .exposedHeaders("Content-Disposition", "ETag")
                         .allowCredentials(false)
                         .maxAge(3600);
             }
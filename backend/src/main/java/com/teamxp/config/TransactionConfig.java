@@ -0,0 +1,27 @@
+package com.teamxp.config;
+
+import com.teamxp.service.WriteTrackingTransactionManager;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.transaction.TransactionManagerCustomizers;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * Replaces Spring Boot's JPA transaction manager with one that tracks open write transactions
+ * for delta sync, keeping the spring.transaction.* customizations.
+ */
+@Configuration
+public class TransactionConfig {
+
+    @Bean
+    public WriteTrackingTransactionManager transactionManager(
+            EntityManagerFactory entityManagerFactory,
+            ObjectProvider<TransactionManagerCustomizers> customizers) {
+        WriteTrackingTransactionManager transactionManager =
+                new WriteTrackingTransactionManager(entityManagerFactory);
+        customizers.ifAvailable(c -> c.customize(transactionManager));
+        return transactionManager;
+    }
+}
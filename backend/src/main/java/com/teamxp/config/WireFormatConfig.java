@@ -0,0 +1,59 @@
+package com.teamxp.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Binary wire formats for clients on slow links: Smile (application/x-jackson-smile) and
+ * CBOR (application/cbor), picked by the Accept and Content-Type headers.
+ * Both use the same Jackson settings as the JSON responses.
+ */
+@Configuration
+public class WireFormatConfig {
+
+    @Bean
+    public WebMvcConfigurer binaryFormatsConfigurer(Jackson2ObjectMapperBuilder builder) {
+        ObjectMapper smileMapper = builder.factory(new SmileFactory()).build();
+        ObjectMapper cborMapper = builder.factory(new CBORFactory()).build();
+        return new WebMvcConfigurer() {
+            @Override
+            public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+                // Spring registers default Smile/CBOR converters with a plain mapper, swap in ours
+                // at the same position; they stay behind JSON so clients accepting anything still
+                // get JSON
+                MappingJackson2SmileHttpMessageConverter smile =
+                        new MappingJackson2SmileHttpMessageConverter(smileMapper);
+                MappingJackson2CborHttpMessageConverter cbor =
+                        new MappingJackson2CborHttpMessageConverter(cborMapper);
+                boolean smileAdded = false;
+                boolean cborAdded = false;
+                for (int i = 0; i < converters.size(); i++) {
+                    HttpMessageConverter<?> converter = converters.get(i);
+                    if (converter instanceof MappingJackson2SmileHttpMessageConverter) {
+                        converters.set(i, smile);
+                        smileAdded = true;
+                    } else if (converter instanceof MappingJackson2CborHttpMessageConverter) {
+                        converters.set(i, cbor);
+                        cborAdded = true;
+                    }
+                }
+                if (!smileAdded) {
+                    converters.add(smile);
+                }
+                if (!cborAdded) {
+                    converters.add(cbor);
+                }
+            }
+        };
+    }
+}
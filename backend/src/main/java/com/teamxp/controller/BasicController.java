@@ -2,6 +2,11 @@ package com.teamxp.controller;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.HealthEndpoint;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -9,6 +14,9 @@ import org.springframework.web.bind.annotation.RestController;
 @Tag(name = "Basic Controller", description = "Basic API endpoints")
 public class BasicController {
 
+    @Autowired
+    private HealthEndpoint healthEndpoint;
+
     @GetMapping("/test")
     @Operation(summary = "Test endpoint")
     public String test() {
@@ -23,8 +31,14 @@ public class BasicController {
 
     @GetMapping("/health")
     @Operation(summary = "Health check")
-    public String health() {
-        return "Application status: normal operation";
+    public ResponseEntity<String> health() {
+        // Same checks as /actuator/health (database, disk space)
+        Status status = healthEndpoint.health().getStatus();
+        if (!Status.UP.equals(status)) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body("Application status: " + status.getCode());
+        }
+        return ResponseEntity.ok("Application status: normal operation");
     }
 
     @GetMapping("/info")
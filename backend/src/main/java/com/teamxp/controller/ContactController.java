@@ -1,20 +1,51 @@
 package com.teamxp.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.teamxp.dto.BatchCreateResultDTO;
+import com.teamxp.dto.BulkUpdateResultDTO;
+import com.teamxp.dto.CacheStatsDTO;
+import com.teamxp.dto.ContactChangesDTO;
 import com.teamxp.dto.ContactDTO;
+import com.teamxp.dto.ContactPageDTO;
 import com.teamxp.dto.ContactRequestDTO;
+import com.teamxp.dto.ContactStatsDTO;
+import com.teamxp.dto.FavoriteUpdateRequestDTO;
+import com.teamxp.dto.ImportSummaryDTO;
+import com.teamxp.dto.JobStatusDTO;
+import com.teamxp.dto.MergeRequestDTO;
+import com.teamxp.dto.NameIndexEntryDTO;
+import com.teamxp.dto.TagCountDTO;
+import com.teamxp.service.ContactJobService;
 import com.teamxp.service.ContactService;
+import com.teamxp.service.ImportProgressListener;
+import com.teamxp.service.SyncTokenExpiredException;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.HealthEndpoint;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import javax.servlet.http.HttpServletRequest;
 import javax.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/contacts")
@@ -25,18 +56,58 @@ public class ContactController {
     @Autowired
     private ContactService contactService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private HealthEndpoint healthEndpoint;
+
+    @Autowired
+    private ContactJobService jobService;
+
     @GetMapping
-    @Operation(summary = "Get all contacts")
-    public ResponseEntity<List<ContactDTO>> getAllContacts() {
-        List<ContactDTO> contacts = contactService.getAllContacts();
-        return ResponseEntity.ok(contacts);
+    @Operation(summary = "Get contacts page by page (keyset pagination), "
+            + "optionally sorted by name or createdAt")
+    public ResponseEntity<ContactPageDTO> getAllContacts(
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String cursor,
+            WebRequest webRequest) {
+        // 304 is answered from the version counter, without loading any contacts
+        if (webRequest.checkNotModified(contactService.getCollectionETag())) {
+            return null;
+        }
+        try {
+            // 未指定排序时按ID分页，否则使用排序游标
+            ContactPageDTO page = sort == null || sort.equals("id")
+                    ? contactService.getContactsPage(after, limit)
+                    : contactService.getContactsPage(sort, cursor, limit);
+            return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/index")
+    @Operation(summary = "Contact counts and sort=name start cursors per first letter of the name")
+    public ResponseEntity<List<NameIndexEntryDTO>> getNameIndex(WebRequest webRequest) {
+        if (webRequest.checkNotModified(contactService.getCollectionETag())) {
+            return null;
+        }
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache())
+                .body(contactService.getNameIndex());
     }
 
     @GetMapping("/{id}")
     @Operation(summary = "Get contact by ID")
-    public ResponseEntity<ContactDTO> getContactById(@PathVariable Long id) {
+    public ResponseEntity<ContactDTO> getContactById(@PathVariable Long id, WebRequest webRequest) {
+        String eTag = contactService.getContactETag(id);
+        if (eTag != null && webRequest.checkNotModified(eTag)) {
+            return null;
+        }
         ContactDTO contact = contactService.getContactById(id);
-        return ResponseEntity.ok(contact);
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(contact);
     }
 
     @PostMapping
@@ -46,6 +117,14 @@ public class ContactController {
         return ResponseEntity.status(HttpStatus.CREATED).body(createdContact);
     }
 
+    @PostMapping("/batch")
+    @Operation(summary = "Create contacts in bulk")
+    public ResponseEntity<BatchCreateResultDTO> createContacts(
+            @RequestBody List<ContactRequestDTO> contactRequests) {
+        BatchCreateResultDTO result = contactService.createContacts(contactRequests);
+        return ResponseEntity.status(HttpStatus.CREATED).body(result);
+    }
+
     @PutMapping("/{id}")
     @Operation(summary = "Update an existing contact")
     public ResponseEntity<ContactDTO> updateContact(
@@ -55,6 +134,20 @@ public class ContactController {
         return ResponseEntity.ok(updatedContact);
     }
 
+    @PatchMapping(value = "/{id}",
+            consumes = {"application/merge-patch+json", MediaType.APPLICATION_JSON_VALUE})
+    @Operation(summary = "Partially update a contact with a JSON merge patch")
+    public ResponseEntity<ContactDTO> patchContact(
+            @PathVariable Long id, @RequestBody JsonNode patch) {
+        try {
+            // 只更新请求中出现的字段
+            ContactDTO patchedContact = contactService.patchContact(id, patch);
+            return ResponseEntity.ok(patchedContact);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     @DeleteMapping("/{id}")
     @Operation(summary = "Delete a contact")
     public ResponseEntity<Void> deleteContact(@PathVariable Long id) {
@@ -62,11 +155,108 @@ public class ContactController {
         return ResponseEntity.noContent().build();
     }
 
+    @DeleteMapping
+    @Operation(summary = "Delete all contacts")
+    public ResponseEntity<Void> deleteAllContacts() {
+        // 服务器端分批删除，客户端无需先下载全部联系人
+        contactService.deleteAllContacts();
+        return ResponseEntity.noContent().build();
+    }
+
+    @PostMapping("/merge")
+    @Operation(summary = "Merge duplicate contacts into a surviving contact")
+    public ResponseEntity<ContactDTO> mergeContacts(@Valid @RequestBody MergeRequestDTO request) {
+        try {
+            // 合并电话、邮箱、标签和备注，然后删除重复联系人
+            ContactDTO merged = contactService.mergeContacts(
+                    request.getSurvivorId(), request.getDuplicateIds());
+            return ResponseEntity.ok(merged);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @PostMapping("/duplicates/jobs")
+    @Operation(summary = "Start a background scan for duplicate contacts")
+    public ResponseEntity<JobStatusDTO> startDuplicateScan() {
+        try {
+            JobStatusDTO job = jobService.submitDuplicateScan();
+            return ResponseEntity.accepted().location(URI.create("/jobs/" + job.getId())).body(job);
+        } catch (RejectedExecutionException e) {
+            return jobQueueFull();
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
     @GetMapping("/favorites")
     @Operation(summary = "Get all favorite contacts")
-    public ResponseEntity<List<ContactDTO>> getFavoriteContacts() {
+    public ResponseEntity<List<ContactDTO>> getFavoriteContacts(WebRequest webRequest) {
+        if (webRequest.checkNotModified(contactService.getCollectionETag())) {
+            return null;
+        }
         List<ContactDTO> favorites = contactService.getFavoriteContacts();
-        return ResponseEntity.ok(favorites);
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(favorites);
+    }
+
+    @GetMapping("/changes")
+    @Operation(summary = "Get contacts changed or deleted since a sync token")
+    public ResponseEntity<ContactChangesDTO> getChanges(
+            @RequestParam(required = false) String since,
+            @RequestParam(defaultValue = "50") int limit) {
+        try {
+            return ResponseEntity.ok(contactService.getChangesSince(since, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (SyncTokenExpiredException e) {
+            // 令牌已过期，客户端需要全量同步
+            return ResponseEntity.status(HttpStatus.GONE).build();
+        }
+    }
+
+    @GetMapping("/filter")
+    @Operation(summary = "Filter contacts by tags and favorite status (keyset pagination)")
+    public ResponseEntity<ContactPageDTO> filterContacts(
+            @RequestParam(required = false) List<String> tags,
+            @RequestParam(defaultValue = "all") String mode,
+            @RequestParam(required = false) Boolean favorite,
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "50") int limit,
+            WebRequest webRequest) {
+        if (!mode.equals("all") && !mode.equals("any")) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (webRequest.checkNotModified(contactService.getCollectionETag())) {
+            return null;
+        }
+        // 标签条件由内存位图求交/并，只加载当前页的联系人
+        ContactPageDTO page =
+                contactService.filterContacts(tags, mode.equals("all"), favorite, after, limit);
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(page);
+    }
+
+    @GetMapping("/stats")
+    @Operation(summary = "Contact, favorite, phone and email totals")
+    public ResponseEntity<ContactStatsDTO> getStatistics(WebRequest webRequest) {
+        if (webRequest.checkNotModified(contactService.getCollectionETag())) {
+            return null;
+        }
+        // 统计由数据库聚合，不返回联系人数据
+        ContactStatsDTO stats = contactService.getStatistics();
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(stats);
+    }
+
+    @GetMapping("/tags")
+    @Operation(summary = "List tags with contact counts")
+    public ResponseEntity<List<TagCountDTO>> getTagCounts() {
+        // 计数在内存中增量维护，无需扫描联系人表
+        return ResponseEntity.ok(contactService.getTagCounts());
+    }
+
+    @GetMapping("/cache/stats")
+    @Operation(summary = "Contact cache statistics")
+    public ResponseEntity<List<CacheStatsDTO>> getCacheStats() {
+        return ResponseEntity.ok(contactService.getCacheStats());
     }
 
     @PatchMapping("/{id}/favorite")
@@ -76,39 +266,79 @@ public class ContactController {
         return ResponseEntity.ok(updatedContact);
     }
 
+    @PatchMapping("/favorite")
+    @Operation(summary = "Set favorite status for many contacts")
+    public ResponseEntity<BulkUpdateResultDTO> updateFavorites(
+            @Valid @RequestBody FavoriteUpdateRequestDTO request) {
+        BulkUpdateResultDTO result =
+                contactService.updateFavorites(request.getIds(), request.getFavorite());
+        return ResponseEntity.ok(result);
+    }
+
+    @GetMapping("/by-phone/{number}")
+    @Operation(summary = "Find contacts by phone number (caller ID)")
+    public ResponseEntity<List<ContactDTO>> findContactsByPhone(@PathVariable String number) {
+        List<ContactDTO> contacts = contactService.findContactsByPhone(number);
+        if (contacts.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(contacts);
+    }
+
+    @PostMapping("/by-phone")
+    @Operation(summary = "Resolve a batch of phone numbers to contacts")
+    public ResponseEntity<Map<String, List<ContactDTO>>> findContactsByPhones(
+            @RequestBody List<String> numbers) {
+        try {
+            // 批量解析通话记录中的号码
+            return ResponseEntity.ok(contactService.findContactsByPhones(numbers));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @PostMapping("/generate")
+    @Operation(summary = "Generate synthetic contacts for testing")
+    public ResponseEntity<ImportSummaryDTO> generateContacts(
+            @RequestParam int count,
+            @RequestParam(defaultValue = "42") long seed) {
+        try {
+            return ResponseEntity.ok(contactService.generateContacts(count, seed));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     @GetMapping("/search")
     @Operation(summary = "Search contacts")
-    public ResponseEntity<List<ContactDTO>> searchContacts(@RequestParam String keyword) {
-        List<ContactDTO> results = contactService.searchContacts(keyword);
-        return ResponseEntity.ok(results);
+    public ResponseEntity<ContactPageDTO> searchContacts(
+            @RequestParam(required = false) String keyword,
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "50") int limit) {
+        // 结果分页返回，next不为空时还有更多匹配
+        ContactPageDTO page = contactService.searchContacts(keyword, after, limit);
+        return ResponseEntity.ok(page);
     }
 
     @GetMapping("/export/excel")
     @Operation(summary = "Export contacts to Excel")
-    public ResponseEntity<byte[]> exportToExcel() {
-        try {
-            System.out.println("开始导出Excel...");
-            byte[] excelData = contactService.exportContactsToExcel();
-            System.out.println("Excel数据生成完成，大小: " + excelData.length + " bytes");
+    public ResponseEntity<StreamingResponseBody> exportToExcel() {
+        HttpHeaders headers = new HttpHeaders();
+        // 设置正确的Content-Type
+        headers.setContentType(MediaType.parseMediaType(
+                "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"));
+        headers.setContentDispositionFormData("attachment", "contacts_export.xlsx");
 
-            HttpHeaders headers = new HttpHeaders();
-            // 设置正确的Content-Type
-            headers.setContentType(MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"));
-            headers.setContentDispositionFormData("attachment", "contacts_export.xlsx");
-            headers.setContentLength(excelData.length);
-
-            return new ResponseEntity<>(excelData, headers, HttpStatus.OK);
-        } catch (Exception e) {
-            System.err.println("导出Excel时出错: " + e.getMessage());
-            e.printStackTrace();
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(("导出失败: " + e.getMessage()).getBytes());
-        }
+        // 直接写入响应流，不在内存中缓存整个文件
+        StreamingResponseBody body =
+                outputStream -> contactService.exportContactsToExcel(outputStream);
+        return new ResponseEntity<>(body, headers, HttpStatus.OK);
     }
 
     @PostMapping("/import/excel")
     @Operation(summary = "Import contacts from Excel file")
-    public ResponseEntity<List<ContactDTO>> importFromExcel(@RequestParam("file") MultipartFile file) {
+    public ResponseEntity<ImportSummaryDTO> importFromExcel(
+            @RequestParam("file") MultipartFile file) {
         if (file.isEmpty()) {
             return ResponseEntity.badRequest().build();
         }
@@ -119,34 +349,130 @@ public class ContactController {
         }
 
         try {
-            List<ContactDTO> importedContacts = contactService.importContactsFromExcel(file);
-            return ResponseEntity.ok(importedContacts);
+            ImportSummaryDTO summary = contactService.importContactsFromExcel(file);
+            return ResponseEntity.ok(summary);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
 
+    @PostMapping("/import/jobs")
+    @Operation(summary = "Start a background import job (xlsx, xls, json or ndjson file)")
+    public ResponseEntity<JobStatusDTO> startImportJob(@RequestParam("file") MultipartFile file) {
+        if (file.isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            // 立即返回任务ID，导入在后台线程池中执行
+            JobStatusDTO job = jobService.submitImport(file);
+            return ResponseEntity.accepted().location(URI.create("/jobs/" + job.getId())).body(job);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (RejectedExecutionException e) {
+            return jobQueueFull();
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    @PostMapping("/export/jobs")
+    @Operation(summary = "Start a background export job (excel, json or ndjson)")
+    public ResponseEntity<JobStatusDTO> startExportJob(
+            @RequestParam(defaultValue = "excel") String format) {
+        try {
+            JobStatusDTO job = jobService.submitExport(format);
+            return ResponseEntity.accepted().location(URI.create("/jobs/" + job.getId())).body(job);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (RejectedExecutionException e) {
+            return jobQueueFull();
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    private ResponseEntity<JobStatusDTO> jobQueueFull() {
+        // 任务队列已满，稍后重试
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "30")
+                .build();
+    }
+
     @GetMapping("/export/json")
     @Operation(summary = "Export contacts to JSON")
-    public ResponseEntity<String> exportToJson() {
-        String json = contactService.exportContactsToJson();
-        return ResponseEntity.ok(json);
+    public ResponseEntity<StreamingResponseBody> exportToJson() {
+        StreamingResponseBody body =
+                outputStream -> contactService.exportContactsToJson(outputStream);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
     }
 
     @PostMapping("/import/json")
     @Operation(summary = "Import contacts from JSON")
-    public ResponseEntity<List<ContactDTO>> importFromJson(@RequestBody String jsonContent) {
+    public ResponseEntity<ImportSummaryDTO> importFromJson(InputStream body) {
         try {
-            List<ContactDTO> importedContacts = contactService.importContactsFromJson(jsonContent);
-            return ResponseEntity.ok(importedContacts);
+            // 直接读取请求流，不缓存整个请求体
+            ImportSummaryDTO summary = contactService.importContactsFromJson(body);
+            return ResponseEntity.ok(summary);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
 
+    @GetMapping(value = "/export/ndjson", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Export contacts as newline-delimited JSON")
+    public ResponseEntity<StreamingResponseBody> exportToNdjson() {
+        StreamingResponseBody body =
+                outputStream -> contactService.exportContactsToNdjson(outputStream);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    @PostMapping(value = "/import/ndjson",
+            consumes = MediaType.APPLICATION_NDJSON_VALUE,
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Import contacts from newline-delimited JSON, streaming progress lines")
+    public ResponseEntity<StreamingResponseBody> importFromNdjson(HttpServletRequest request)
+            throws IOException {
+        InputStream body = request.getInputStream();
+        ObjectWriter writer = objectMapper.writerFor(ImportSummaryDTO.class);
+
+        // 每提交一批写出一行进度，最后一行为最终结果（completed=true）
+        StreamingResponseBody progress = outputStream -> {
+            ImportProgressListener listener =
+                    summary -> writeProgressLine(writer, outputStream, summary);
+            ImportSummaryDTO summary = contactService.importContactsFromNdjson(body, listener);
+            writeProgressLine(writer, outputStream, summary);
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(progress);
+    }
+
+    private void writeProgressLine(
+            ObjectWriter writer, OutputStream outputStream, ImportSummaryDTO summary) {
+        try {
+            outputStream.write(writer.writeValueAsBytes(summary));
+            outputStream.write('\n');
+            outputStream.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
     @GetMapping("/health")
     @Operation(summary = "Health check")
     public ResponseEntity<String> healthCheck() {
+        // 与 /actuator/health 使用相同的检查
+        Status status = healthEndpoint.health().getStatus();
+        if (!Status.UP.equals(status)) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body("Contact API status: " + status.getCode());
+        }
         return ResponseEntity.ok("Contact API is running");
     }
 }
\ No newline at end of file
@@ -0,0 +1,71 @@
+package com.teamxp.controller;
+
+import com.teamxp.dto.JobStatusDTO;
+import com.teamxp.service.ContactJobService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.File;
+
+@RestController
+@RequestMapping("/jobs")
+@Tag(name = "Background Jobs",
+        description = "Progress and results of import, export and duplicate scan jobs")
+@CrossOrigin(origins = {"http://127.0.0.1:5500", "http://localhost:5500"})
+public class JobController {
+
+    @Autowired
+    private ContactJobService jobService;
+
+    @GetMapping("/{id}")
+    @Operation(summary = "Get job progress")
+    public ResponseEntity<JobStatusDTO> getJob(@PathVariable String id) {
+        JobStatusDTO job = jobService.getJob(id);
+        if (job == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(job);
+    }
+
+    @GetMapping("/{id}/result")
+    @Operation(summary = "Download the file of a finished export or duplicate scan job")
+    public ResponseEntity<Resource> getResult(@PathVariable String id) {
+        JobStatusDTO job = jobService.getJob(id);
+        if (job == null) {
+            return ResponseEntity.notFound().build();
+        }
+        File result = jobService.getResult(id);
+        if (result == null) {
+            // 任务尚未完成、失败或是导入任务
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(contentType(job.getFormat()));
+        String name = job.getType().equals("dedup") ? "contacts_duplicates" : "contacts_export";
+        headers.setContentDispositionFormData("attachment",
+                name + "." + ContactJobService.fileExtension(job.getFormat()));
+        // 直接从临时文件读取，不加载到内存
+        return new ResponseEntity<>(new FileSystemResource(result), headers, HttpStatus.OK);
+    }
+
+    private MediaType contentType(String format) {
+        switch (format) {
+            case "excel":
+                return MediaType.parseMediaType(
+                        "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
+            case "ndjson":
+                return MediaType.APPLICATION_NDJSON;
+            default:
+                return MediaType.APPLICATION_JSON;
+        }
+    }
+}
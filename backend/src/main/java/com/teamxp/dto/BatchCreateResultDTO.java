@@ -0,0 +1,23 @@
+package com.teamxp.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class BatchCreateResultDTO {
+    private List<Long> createdIds = new ArrayList<>();
+    private List<BatchItemErrorDTO> errors = new ArrayList<>();
+
+    // Constructors
+    public BatchCreateResultDTO() {}
+
+    // Getters and Setters
+    public List<Long> getCreatedIds() { return createdIds; }
+    public void setCreatedIds(List<Long> createdIds) {
+        this.createdIds = createdIds != null ? createdIds : new ArrayList<>();
+    }
+
+    public List<BatchItemErrorDTO> getErrors() { return errors; }
+    public void setErrors(List<BatchItemErrorDTO> errors) {
+        this.errors = errors != null ? errors : new ArrayList<>();
+    }
+}
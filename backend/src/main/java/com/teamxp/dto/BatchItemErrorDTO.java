@@ -0,0 +1,22 @@
+package com.teamxp.dto;
+
+public class BatchItemErrorDTO {
+    // Position of the failed item in the request list
+    private int index;
+    private String message;
+
+    // Constructors
+    public BatchItemErrorDTO() {}
+
+    public BatchItemErrorDTO(int index, String message) {
+        this.index = index;
+        this.message = message;
+    }
+
+    // Getters and Setters
+    public int getIndex() { return index; }
+    public void setIndex(int index) { this.index = index; }
+
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+}
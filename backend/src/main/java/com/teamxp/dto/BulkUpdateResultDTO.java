@@ -0,0 +1,17 @@
+package com.teamxp.dto;
+
+public class BulkUpdateResultDTO {
+    // Number of contacts the statement changed
+    private int updated;
+
+    // Constructors
+    public BulkUpdateResultDTO() {}
+
+    public BulkUpdateResultDTO(int updated) {
+        this.updated = updated;
+    }
+
+    // Getters and Setters
+    public int getUpdated() { return updated; }
+    public void setUpdated(int updated) { this.updated = updated; }
+}
@@ -0,0 +1,42 @@
+package com.teamxp.dto;
+
+public class CacheStatsDTO {
+    private String name;
+    private long size;
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+    private double hitRate;
+
+    // Constructors
+    public CacheStatsDTO() {}
+
+    public CacheStatsDTO(String name, long size, long hitCount, long missCount,
+            long evictionCount, double hitRate) {
+        this.name = name;
+        this.size = size;
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.evictionCount = evictionCount;
+        this.hitRate = hitRate;
+    }
+
+    // Getters and Setters
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public long getSize() { return size; }
+    public void setSize(long size) { this.size = size; }
+
+    public long getHitCount() { return hitCount; }
+    public void setHitCount(long hitCount) { this.hitCount = hitCount; }
+
+    public long getMissCount() { return missCount; }
+    public void setMissCount(long missCount) { this.missCount = missCount; }
+
+    public long getEvictionCount() { return evictionCount; }
+    public void setEvictionCount(long evictionCount) { this.evictionCount = evictionCount; }
+
+    public double getHitRate() { return hitRate; }
+    public void setHitRate(double hitRate) { this.hitRate = hitRate; }
+}
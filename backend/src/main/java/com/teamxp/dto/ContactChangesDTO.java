@@ -0,0 +1,35 @@
+package com.teamxp.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ContactChangesDTO {
+    // Contacts created or modified since the token
+    private List<ContactDTO> changed = new ArrayList<>();
+    // IDs of contacts deleted since the token
+    private List<Long> deleted = new ArrayList<>();
+    // Token to pass as since on the next call
+    private String nextToken;
+    // True when more changes are waiting, call again right away with nextToken
+    private boolean hasMore;
+
+    // Constructors
+    public ContactChangesDTO() {}
+
+    // Getters and Setters
+    public List<ContactDTO> getChanged() { return changed; }
+    public void setChanged(List<ContactDTO> changed) {
+        this.changed = changed != null ? changed : new ArrayList<>();
+    }
+
+    public List<Long> getDeleted() { return deleted; }
+    public void setDeleted(List<Long> deleted) {
+        this.deleted = deleted != null ? deleted : new ArrayList<>();
+    }
+
+    public String getNextToken() { return nextToken; }
+    public void setNextToken(String nextToken) { this.nextToken = nextToken; }
+
+    public boolean isHasMore() { return hasMore; }
+    public void setHasMore(boolean hasMore) { this.hasMore = hasMore; }
+}
@@ -0,0 +1,37 @@
+package com.teamxp.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ContactPageDTO {
+    private List<ContactDTO> contacts = new ArrayList<>();
+    // Cursor for the following page, null when this is the last page
+    private Long next;
+    // Opaque cursor for the following page of a sorted listing, null when this is the last page
+    private String nextCursor;
+    private int limit;
+
+    // Constructors
+    public ContactPageDTO() {}
+
+    public ContactPageDTO(List<ContactDTO> contacts, Long next, int limit) {
+        this.contacts = contacts != null ? contacts : new ArrayList<>();
+        this.next = next;
+        this.limit = limit;
+    }
+
+    // Getters and Setters
+    public List<ContactDTO> getContacts() { return contacts; }
+    public void setContacts(List<ContactDTO> contacts) {
+        this.contacts = contacts != null ? contacts : new ArrayList<>();
+    }
+
+    public Long getNext() { return next; }
+    public void setNext(Long next) { this.next = next; }
+
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+
+    public int getLimit() { return limit; }
+    public void setLimit(int limit) { this.limit = limit; }
+}
@@ -0,0 +1,34 @@
+package com.teamxp.dto;
+
+public class ContactStatsDTO {
+    private long totalContacts;
+    private long favoriteContacts;
+    private long totalPhones;
+    private long totalEmails;
+
+    // Constructors
+    public ContactStatsDTO() {}
+
+    public ContactStatsDTO(long totalContacts, long favoriteContacts, long totalPhones,
+            long totalEmails) {
+        this.totalContacts = totalContacts;
+        this.favoriteContacts = favoriteContacts;
+        this.totalPhones = totalPhones;
+        this.totalEmails = totalEmails;
+    }
+
+    // Getters and Setters
+    public long getTotalContacts() { return totalContacts; }
+    public void setTotalContacts(long totalContacts) { this.totalContacts = totalContacts; }
+
+    public long getFavoriteContacts() { return favoriteContacts; }
+    public void setFavoriteContacts(long favoriteContacts) {
+        this.favoriteContacts = favoriteContacts;
+    }
+
+    public long getTotalPhones() { return totalPhones; }
+    public void setTotalPhones(long totalPhones) { this.totalPhones = totalPhones; }
+
+    public long getTotalEmails() { return totalEmails; }
+    public void setTotalEmails(long totalEmails) { this.totalEmails = totalEmails; }
+}
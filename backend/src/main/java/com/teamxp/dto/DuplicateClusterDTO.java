@@ -0,0 +1,28 @@
+package com.teamxp.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class DuplicateClusterDTO {
+    // Contacts judged to be the same person, in ID order
+    private List<Long> contactIds = new ArrayList<>();
+    // Oldest contact of the cluster, the default merge target
+    private Long suggestedSurvivorId;
+
+    // Constructors
+    public DuplicateClusterDTO() {}
+
+    public DuplicateClusterDTO(List<Long> contactIds) {
+        this.contactIds = contactIds;
+        this.suggestedSurvivorId = contactIds.isEmpty() ? null : contactIds.get(0);
+    }
+
+    // Getters and Setters
+    public List<Long> getContactIds() { return contactIds; }
+    public void setContactIds(List<Long> contactIds) { this.contactIds = contactIds; }
+
+    public Long getSuggestedSurvivorId() { return suggestedSurvivorId; }
+    public void setSuggestedSurvivorId(Long suggestedSurvivorId) {
+        this.suggestedSurvivorId = suggestedSurvivorId;
+    }
+}
@@ -0,0 +1,33 @@
+package com.teamxp.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class DuplicateReportDTO {
+    private long scannedContacts;
+    // Pairs that shared a blocking key and were scored
+    private long comparedPairs;
+    // Blocks skipped because a key was shared by too many contacts to be meaningful
+    private long skippedBlocks;
+    // Contacts that would be removed by merging every cluster into its survivor
+    private long duplicateContacts;
+    private List<DuplicateClusterDTO> clusters = new ArrayList<>();
+
+    // Getters and Setters
+    public long getScannedContacts() { return scannedContacts; }
+    public void setScannedContacts(long scannedContacts) { this.scannedContacts = scannedContacts; }
+
+    public long getComparedPairs() { return comparedPairs; }
+    public void setComparedPairs(long comparedPairs) { this.comparedPairs = comparedPairs; }
+
+    public long getSkippedBlocks() { return skippedBlocks; }
+    public void setSkippedBlocks(long skippedBlocks) { this.skippedBlocks = skippedBlocks; }
+
+    public long getDuplicateContacts() { return duplicateContacts; }
+    public void setDuplicateContacts(long duplicateContacts) {
+        this.duplicateContacts = duplicateContacts;
+    }
+
+    public List<DuplicateClusterDTO> getClusters() { return clusters; }
+    public void setClusters(List<DuplicateClusterDTO> clusters) { this.clusters = clusters; }
+}
@@ -0,0 +1,24 @@
+package com.teamxp.dto;
+
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import java.util.ArrayList;
+import java.util.List;
+
+public class FavoriteUpdateRequestDTO {
+
+    @NotEmpty(message = "At least one contact ID is required")
+    private List<Long> ids = new ArrayList<>();
+
+    @NotNull(message = "Favorite flag is mandatory")
+    private Boolean favorite;
+
+    // Getters and Setters
+    public List<Long> getIds() { return ids; }
+    public void setIds(List<Long> ids) {
+        this.ids = ids != null ? ids : new ArrayList<>();
+    }
+
+    public Boolean getFavorite() { return favorite; }
+    public void setFavorite(Boolean favorite) { this.favorite = favorite; }
+}
@@ -0,0 +1,45 @@
+package com.teamxp.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ImportSummaryDTO {
+    // Only the first failures are listed so the summary stays small for huge imports
+    public static final int MAX_REPORTED_FAILURES = 1000;
+
+    private int imported;
+    private int failed;
+    // Row numbers (Excel), item indexes (JSON) or line numbers (NDJSON) that could not be imported
+    private List<Integer> failedRows = new ArrayList<>();
+    // False while an import is still reporting progress
+    private boolean completed;
+
+    // Constructors
+    public ImportSummaryDTO() {}
+
+    public void recordImported(int count) {
+        imported += count;
+    }
+
+    public void recordFailure(int row) {
+        failed++;
+        if (failedRows.size() < MAX_REPORTED_FAILURES) {
+            failedRows.add(row);
+        }
+    }
+
+    // Getters and Setters
+    public int getImported() { return imported; }
+    public void setImported(int imported) { this.imported = imported; }
+
+    public int getFailed() { return failed; }
+    public void setFailed(int failed) { this.failed = failed; }
+
+    public boolean isCompleted() { return completed; }
+    public void setCompleted(boolean completed) { this.completed = completed; }
+
+    public List<Integer> getFailedRows() { return failedRows; }
+    public void setFailedRows(List<Integer> failedRows) {
+        this.failedRows = failedRows != null ? failedRows : new ArrayList<>();
+    }
+}
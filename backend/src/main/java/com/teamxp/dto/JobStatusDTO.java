@@ -0,0 +1,65 @@
+package com.teamxp.dto;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+public class JobStatusDTO {
+    private String id;
+    // "import" or "export"
+    private String type;
+    // excel, json or ndjson
+    private String format;
+    // QUEUED, RUNNING, SUCCEEDED or FAILED
+    private String state;
+    // Rows imported or exported so far
+    private long processedRows;
+    private int failedRows;
+    // First failed row numbers of an import, see ImportSummaryDTO
+    private List<Integer> failedRowNumbers = new ArrayList<>();
+    private String error;
+    private Date createdAt;
+    private Date startedAt;
+    private Date finishedAt;
+    // Set once an export file can be downloaded
+    private String resultUrl;
+
+    // Getters and Setters
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+
+    public String getFormat() { return format; }
+    public void setFormat(String format) { this.format = format; }
+
+    public String getState() { return state; }
+    public void setState(String state) { this.state = state; }
+
+    public long getProcessedRows() { return processedRows; }
+    public void setProcessedRows(long processedRows) { this.processedRows = processedRows; }
+
+    public int getFailedRows() { return failedRows; }
+    public void setFailedRows(int failedRows) { this.failedRows = failedRows; }
+
+    public List<Integer> getFailedRowNumbers() { return failedRowNumbers; }
+    public void setFailedRowNumbers(List<Integer> failedRowNumbers) {
+        this.failedRowNumbers = failedRowNumbers != null ? failedRowNumbers : new ArrayList<>();
+    }
+
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+
+    public Date getCreatedAt() { return createdAt; }
+    public void setCreatedAt(Date createdAt) { this.createdAt = createdAt; }
+
+    public Date getStartedAt() { return startedAt; }
+    public void setStartedAt(Date startedAt) { this.startedAt = startedAt; }
+
+    public Date getFinishedAt() { return finishedAt; }
+    public void setFinishedAt(Date finishedAt) { this.finishedAt = finishedAt; }
+
+    public String getResultUrl() { return resultUrl; }
+    public void setResultUrl(String resultUrl) { this.resultUrl = resultUrl; }
+}
@@ -0,0 +1,24 @@
+package com.teamxp.dto;
+
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import java.util.ArrayList;
+import java.util.List;
+
+public class MergeRequestDTO {
+
+    @NotNull(message = "Survivor ID is mandatory")
+    private Long survivorId;
+
+    @NotEmpty(message = "At least one duplicate ID is required")
+    private List<Long> duplicateIds = new ArrayList<>();
+
+    // Getters and Setters
+    public Long getSurvivorId() { return survivorId; }
+    public void setSurvivorId(Long survivorId) { this.survivorId = survivorId; }
+
+    public List<Long> getDuplicateIds() { return duplicateIds; }
+    public void setDuplicateIds(List<Long> duplicateIds) {
+        this.duplicateIds = duplicateIds != null ? duplicateIds : new ArrayList<>();
+    }
+}
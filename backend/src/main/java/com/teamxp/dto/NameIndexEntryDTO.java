@@ -0,0 +1,28 @@
+package com.teamxp.dto;
+
+public class NameIndexEntryDTO {
+    // First letter of the name, uppercased
+    private String initial;
+    private long count;
+    // Pass as cursor with sort=name to start the listing at this letter, other sorts answer 400
+    private String cursor;
+
+    // Constructors
+    public NameIndexEntryDTO() {}
+
+    public NameIndexEntryDTO(String initial, long count, String cursor) {
+        this.initial = initial;
+        this.count = count;
+        this.cursor = cursor;
+    }
+
+    // Getters and Setters
+    public String getInitial() { return initial; }
+    public void setInitial(String initial) { this.initial = initial; }
+
+    public long getCount() { return count; }
+    public void setCount(long count) { this.count = count; }
+
+    public String getCursor() { return cursor; }
+    public void setCursor(String cursor) { this.cursor = cursor; }
+}
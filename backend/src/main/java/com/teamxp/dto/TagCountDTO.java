@@ -0,0 +1,33 @@
+package com.teamxp.dto;
+
+public class TagCountDTO {
+    private String tag;
+    private long count;
+    private long favoriteCount;
+    private long nonFavoriteCount;
+
+    // Constructors
+    public TagCountDTO() {}
+
+    public TagCountDTO(String tag, long favoriteCount, long nonFavoriteCount) {
+        this.tag = tag;
+        this.count = favoriteCount + nonFavoriteCount;
+        this.favoriteCount = favoriteCount;
+        this.nonFavoriteCount = nonFavoriteCount;
+    }
+
+    // Getters and Setters
+    public String getTag() { return tag; }
+    public void setTag(String tag) { this.tag = tag; }
+
+    public long getCount() { return count; }
+    public void setCount(long count) { this.count = count; }
+
+    public long getFavoriteCount() { return favoriteCount; }
+    public void setFavoriteCount(long favoriteCount) { this.favoriteCount = favoriteCount; }
+
+    public long getNonFavoriteCount() { return nonFavoriteCount; }
+    public void setNonFavoriteCount(long nonFavoriteCount) {
+        this.nonFavoriteCount = nonFavoriteCount;
+    }
+}
@@ -2,30 +2,48 @@ package com.teamxp.entity;
 
 import javax.persistence.*;
 import javax.validation.constraints.NotBlank;
+import java.text.Normalizer;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.stream.Collectors;
 
 @Entity
-@Table(name = "contacts")
+@Table(name = "contacts", indexes = {
+        @Index(name = "idx_contacts_last_modified", columnList = "last_modified, id"),
+        @Index(name = "idx_contacts_name_key", columnList = "name_key, id"),
+        @Index(name = "idx_contacts_created_at", columnList = "created_at, id")})
 public class Contact {
 
+    // Pooled sequence instead of IDENTITY so Hibernate can batch inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "contact_seq")
+    @SequenceGenerator(name = "contact_seq", sequenceName = "contact_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "Name is mandatory")
     @Column(nullable = false)
     private String name;
 
-    // Multiple phone numbers
+    // Accent- and case-insensitive form of the name, what name sorting and the letter index use
+    @Column(name = "name_key", nullable = false)
+    private String nameKey;
+
+    // Multiple phone numbers; the order column keeps positions stable and lets Hibernate
+    // update single rows instead of deleting and re-inserting the whole collection
     @ElementCollection
-    @CollectionTable(name = "contact_phones", joinColumns = @JoinColumn(name = "contact_id"))
-    @Column(name = "phone_number")
-    private List<String> phones = new ArrayList<>();
+    @OrderColumn(name = "list_index")
+    @CollectionTable(name = "contact_phones", joinColumns = @JoinColumn(name = "contact_id"),
+            indexes = {
+            @Index(name = "idx_contact_phones_normalized", columnList = "phone_normalized"),
+            @Index(name = "idx_contact_phones_reversed", columnList = "phone_reversed")})
+    private List<PhoneNumber> phones = new ArrayList<>();
 
     // Multiple email addresses
     @ElementCollection
+    @OrderColumn(name = "list_index")
     @CollectionTable(name = "contact_emails", joinColumns = @JoinColumn(name = "contact_id"))
     @Column(name = "email_address")
     private List<String> emails = new ArrayList<>();
@@ -40,6 +58,7 @@ public class Contact {
 
     // Multiple tags
     @ElementCollection
+    @OrderColumn(name = "list_index")
     @CollectionTable(name = "contact_tags", joinColumns = @JoinColumn(name = "contact_id"))
     @Column(name = "tag")
     private List<String> tags = new ArrayList<>();
@@ -50,6 +69,7 @@ public class Contact {
 
     // Social media accounts
     @ElementCollection
+    @OrderColumn(name = "list_index")
     @CollectionTable(name = "contact_social_media", joinColumns = @JoinColumn(name = "contact_id"))
     private List<SocialMediaAccount> socialMedia = new ArrayList<>();
 
@@ -70,8 +90,8 @@ public class Contact {
 
     public Contact(String name, List<String> phones, List<String> emails, String address) {
         this();
-        this.name = name;
-        this.phones = phones != null ? phones : new ArrayList<>();
+        setName(name);
+        this.phones = toPhoneNumbers(phones);
         this.emails = emails != null ? emails : new ArrayList<>();
         this.address = address;
     }
@@ -83,18 +103,25 @@ public class Contact {
     public String getName() { return name; }
     public void setName(String name) {
         this.name = name;
+        this.nameKey = nameKey(name);
         this.lastModified = new Date();
     }
 
-    public List<String> getPhones() { return phones; }
+    public String getNameKey() { return nameKey; }
+
+    public List<String> getPhones() {
+        return phones.stream()
+                .map(PhoneNumber::getNumber)
+                .collect(Collectors.toList());
+    }
     public void setPhones(List<String> phones) {
-        this.phones = phones != null ? phones : new ArrayList<>();
+        replaceElements(this.phones, toPhoneNumbers(phones));
         this.lastModified = new Date();
     }
 
     public List<String> getEmails() { return emails; }
     public void setEmails(List<String> emails) {
-        this.emails = emails != null ? emails : new ArrayList<>();
+        replaceElements(this.emails, emails);
         this.lastModified = new Date();
     }
 
@@ -112,7 +139,7 @@ public class Contact {
 
     public List<String> getTags() { return tags; }
     public void setTags(List<String> tags) {
-        this.tags = tags != null ? tags : new ArrayList<>();
+        replaceElements(this.tags, tags);
         this.lastModified = new Date();
     }
 
@@ -124,7 +151,7 @@ public class Contact {
 
     public List<SocialMediaAccount> getSocialMedia() { return socialMedia; }
     public void setSocialMedia(List<SocialMediaAccount> socialMedia) {
-        this.socialMedia = socialMedia != null ? socialMedia : new ArrayList<>();
+        replaceElements(this.socialMedia, socialMedia);
         this.lastModified = new Date();
     }
 
@@ -136,8 +163,8 @@ public class Contact {
 
     // Helper methods
     public void addPhone(String phone) {
-        if (phone != null && !phone.trim().isEmpty() && !phones.contains(phone)) {
-            phones.add(phone);
+        if (phone != null && !phone.trim().isEmpty() && !getPhones().contains(phone)) {
+            phones.add(new PhoneNumber(phone));
             this.lastModified = new Date();
         }
     }
@@ -161,9 +188,56 @@ public class Contact {
         this.lastModified = new Date();
     }
 
+    // Re-stamped when persisted, the entity may have been built before the transaction began
+    @PrePersist
+    protected void onPersist() {
+        this.lastModified = new Date();
+    }
+
+    // Sort key of a name: trimmed, accents removed and lowercased, so "Émile" sorts with "emma"
+    public static String nameKey(String name) {
+        if (name == null) {
+            return "";
+        }
+        String key = Normalizer.normalize(name.trim(), Normalizer.Form.NFD)
+                .replaceAll("\\p{M}+", "")
+                .toLowerCase(Locale.ROOT);
+        return key.length() > 255 ? key.substring(0, 255) : key;
+    }
+
+    private static List<PhoneNumber> toPhoneNumbers(List<String> numbers) {
+        List<PhoneNumber> phoneNumbers = new ArrayList<>();
+        if (numbers != null) {
+            for (String number : numbers) {
+                phoneNumbers.add(new PhoneNumber(number));
+            }
+        }
+        return phoneNumbers;
+    }
+
+    // Rewrite a collection in place, touching only the positions whose value changed
+    private static <T> void replaceElements(List<T> target, List<T> values) {
+        if (target == values) {
+            return;
+        }
+        List<T> source = values != null ? new ArrayList<>(values) : new ArrayList<>();
+        int common = Math.min(target.size(), source.size());
+        for (int i = 0; i < common; i++) {
+            if (!Objects.equals(target.get(i), source.get(i))) {
+                target.set(i, source.get(i));
+            }
+        }
+        for (int i = common; i < source.size(); i++) {
+            target.add(source.get(i));
+        }
+        while (target.size() > source.size()) {
+            target.remove(target.size() - 1);
+        }
+    }
+
     // Get primary phone (first phone)
     public String getPrimaryPhone() {
-        return phones != null && !phones.isEmpty() ? phones.get(0) : null;
+        return phones != null && !phones.isEmpty() ? phones.get(0).getNumber() : null;
     }
 
     // Get primary email (first email)
@@ -0,0 +1,40 @@
+package com.teamxp.entity;
+
+import javax.persistence.*;
+import java.util.Date;
+
+// Tombstone left by a deleted contact so delta-sync clients learn about the delete
+@Entity
+@Table(name = "contact_deletions", indexes = {
+        @Index(name = "idx_contact_deletions_deleted_at", columnList = "deleted_at")})
+public class ContactDeletion {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "contact_id", nullable = false)
+    private Long contactId;
+
+    @Column(name = "deleted_at", nullable = false)
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date deletedAt;
+
+    // Constructors
+    public ContactDeletion() {}
+
+    public ContactDeletion(Long contactId, Date deletedAt) {
+        this.contactId = contactId;
+        this.deletedAt = deletedAt;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getContactId() { return contactId; }
+    public void setContactId(Long contactId) { this.contactId = contactId; }
+
+    public Date getDeletedAt() { return deletedAt; }
+    public void setDeletedAt(Date deletedAt) { this.deletedAt = deletedAt; }
+}
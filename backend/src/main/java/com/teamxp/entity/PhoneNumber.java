@@ -0,0 +1,68 @@
+package com.teamxp.entity;
+
+import javax.persistence.Column;
+import javax.persistence.Embeddable;
+import java.util.Objects;
+
+@Embeddable
+public class PhoneNumber {
+
+    // Number as the user typed it
+    @Column(name = "phone_number")
+    private String number;
+
+    // Canonical E.164-style digits, used for exact caller-ID matches
+    @Column(name = "phone_normalized", length = 32)
+    private String normalized;
+
+    // Normalized digits reversed, so a suffix match becomes an indexed prefix LIKE
+    @Column(name = "phone_reversed", length = 32)
+    private String reversed;
+
+    // Constructors
+    public PhoneNumber() {}
+
+    public PhoneNumber(String number) {
+        this.number = number;
+        this.normalized = normalize(number);
+        this.reversed = new StringBuilder(normalized).reverse().toString();
+    }
+
+    // Keep the digits only; a leading 00 international prefix is treated like +
+    public static String normalize(String number) {
+        if (number == null) {
+            return "";
+        }
+        String trimmed = number.trim();
+        StringBuilder digits = new StringBuilder();
+        for (int i = 0; i < trimmed.length(); i++) {
+            char c = trimmed.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits.append(c);
+            }
+        }
+        if (!trimmed.startsWith("+") && trimmed.startsWith("00")) {
+            digits.delete(0, 2);
+        }
+        return digits.toString();
+    }
+
+    // Getters
+    public String getNumber() { return number; }
+
+    public String getNormalized() { return normalized; }
+
+    public String getReversed() { return reversed; }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof PhoneNumber)) return false;
+        return Objects.equals(number, ((PhoneNumber) o).number);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(number);
+    }
+}
@@ -0,0 +1,29 @@
+package com.teamxp.repository;
+
+import com.teamxp.entity.ContactDeletion;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Date;
+import java.util.List;
+
+@Repository
+public interface ContactDeletionRepository extends JpaRepository<ContactDeletion, Long> {
+
+    // Tombstones after the (deletedAt, id) cursor and before the settle time, in that order.
+    // IDs are handed out before commit, so only the timestamp bound keeps late commits in range
+    @Query("SELECT d FROM ContactDeletion d"
+            + " WHERE (d.deletedAt > ?1 OR (d.deletedAt = ?1 AND d.id > ?2))"
+            + " AND d.deletedAt < ?3 ORDER BY d.deletedAt, d.id")
+    List<ContactDeletion> findDeletedAfter(Date deletedAt, Long id, Date until, Pageable pageable);
+
+    // Compaction: drop tombstones past the retention period
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM ContactDeletion d WHERE d.deletedAt < ?1")
+    int deleteOlderThan(Date cutoff);
+}
@@ -1,30 +1,150 @@
 package com.teamxp.repository;
 
 import com.teamxp.entity.Contact;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.Date;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ContactRepository extends JpaRepository<Contact, Long> {
 
-    // Find all favorite contacts
-    List<Contact> findByIsFavoriteTrue();
+    // Keyset page: contacts with an ID greater than the cursor, in ID order
+    List<Contact> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
 
-    // Search contacts by name (case-insensitive)
-    List<Contact> findByNameContainingIgnoreCase(String name);
+    // Sorted keyset pages: the order comes from the pageable's sort, the cursor is the last row
+    // of the previous page
+    List<Contact> findAllBy(Pageable pageable);
 
-    // Search contacts by phone number
-    @Query("SELECT c FROM Contact c JOIN c.phones p WHERE p LIKE %?1%")
-    List<Contact> findByPhoneNumberContaining(String phone);
+    @Query("SELECT c FROM Contact c WHERE c.nameKey > ?1 OR (c.nameKey = ?1 AND c.id > ?2)")
+    List<Contact> findAfterNameKey(String nameKey, Long id, Pageable pageable);
 
-    // Search contacts by email
-    @Query("SELECT c FROM Contact c JOIN c.emails e WHERE e LIKE %?1%")
-    List<Contact> findByEmailContaining(String email);
+    @Query("SELECT c FROM Contact c WHERE c.nameKey < ?1 OR (c.nameKey = ?1 AND c.id < ?2)")
+    List<Contact> findBeforeNameKey(String nameKey, Long id, Pageable pageable);
 
-    // Search contacts by tag
-    @Query("SELECT c FROM Contact c JOIN c.tags t WHERE t LIKE %?1%")
-    List<Contact> findByTagContaining(String tag);
+    @Query("SELECT c FROM Contact c WHERE c.createdAt > ?1 OR (c.createdAt = ?1 AND c.id > ?2)")
+    List<Contact> findAfterCreatedAt(Date createdAt, Long id, Pageable pageable);
+
+    @Query("SELECT c FROM Contact c WHERE c.createdAt < ?1 OR (c.createdAt = ?1 AND c.id < ?2)")
+    List<Contact> findBeforeCreatedAt(Date createdAt, Long id, Pageable pageable);
+
+    // Contact count per first character of the name sort key, rows of [initial, count]
+    @Query("SELECT SUBSTRING(c.nameKey, 1, 1), COUNT(c) FROM Contact c"
+            + " GROUP BY SUBSTRING(c.nameKey, 1, 1)")
+    List<Object[]> countByNameInitial();
+
+    // Delta sync: contacts modified after the (lastModified, id) cursor and before the settle time
+    @Query("SELECT c FROM Contact c"
+            + " WHERE (c.lastModified > ?1 OR (c.lastModified = ?1 AND c.id > ?2))"
+            + " AND c.lastModified < ?3 ORDER BY c.lastModified, c.id")
+    List<Contact> findChangedSince(Date since, Long afterId, Date until, Pageable pageable);
+
+    // Favorite flag of one contact, without loading the entity
+    @Query("SELECT c.isFavorite FROM Contact c WHERE c.id = ?1")
+    Optional<Boolean> findFavoriteById(Long id);
+
+    // Last modification time of one contact, without loading the entity
+    @Query("SELECT c.lastModified FROM Contact c WHERE c.id = ?1")
+    Optional<Date> findLastModifiedById(Long id);
+
+    // Flip the favorite flag with a single UPDATE, no entity load or collection rewrite
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Contact c"
+            + " SET c.isFavorite = CASE WHEN c.isFavorite = true THEN false ELSE true END,"
+            + " c.lastModified = ?2 WHERE c.id = ?1")
+    int toggleFavoriteById(Long id, Date lastModified);
+
+    // Set the favorite flag of one contact only while it still has the other value, so a toggle
+    // that already knows the current flag needs no read
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Contact c SET c.isFavorite = ?2, c.lastModified = ?3"
+            + " WHERE c.id = ?1 AND c.isFavorite <> ?2")
+    int setFavoriteIfChanged(Long id, boolean favorite, Date lastModified);
+
+    // Set the favorite flag of many contacts in one set-based UPDATE
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Contact c SET c.isFavorite = ?2, c.lastModified = ?3 WHERE c.id IN ?1")
+    int updateFavoriteByIds(Collection<Long> ids, boolean favorite, Date lastModified);
+
+    // Find all favorite contacts in ID order
+    List<Contact> findByIsFavoriteTrueOrderByIdAsc();
+
+    // Search fallback while the n-gram index is being built: IDs after the cursor in ID order,
+    // the term is already lowercased
+    @Query("SELECT c.id FROM Contact c WHERE LOWER(c.name) LIKE %?1% AND c.id > ?2 ORDER BY c.id")
+    List<Long> findIdsByNameContaining(String name, long after, Pageable pageable);
+
+    @Query("SELECT DISTINCT c.id FROM Contact c JOIN c.phones p"
+            + " WHERE p.number LIKE %?1% AND c.id > ?2 ORDER BY c.id")
+    List<Long> findIdsByPhoneNumberContaining(String phone, long after, Pageable pageable);
+
+    // Caller-ID lookups on the indexed normalized phone columns
+    @Query("SELECT DISTINCT c.id FROM Contact c JOIN c.phones p"
+            + " WHERE p.normalized = ?1 ORDER BY c.id")
+    List<Long> findIdsByNormalizedPhone(String normalized);
+
+    @Query("SELECT DISTINCT c.id FROM Contact c JOIN c.phones p"
+            + " WHERE p.reversed LIKE CONCAT(?1, '%') ORDER BY c.id")
+    List<Long> findIdsByReversedPhonePrefix(String reversedSuffix);
+
+    // Rows of [contactId, normalized phone] for a batch of normalized numbers
+    @Query("SELECT DISTINCT c.id, p.normalized FROM Contact c JOIN c.phones p"
+            + " WHERE p.normalized IN ?1")
+    List<Object[]> findIdsByNormalizedPhones(Collection<String> normalized);
+
+    @Query("SELECT DISTINCT c.id FROM Contact c JOIN c.emails e"
+            + " WHERE LOWER(e) LIKE %?1% AND c.id > ?2 ORDER BY c.id")
+    List<Long> findIdsByEmailContaining(String email, long after, Pageable pageable);
+
+    @Query("SELECT DISTINCT c.id FROM Contact c JOIN c.tags t"
+            + " WHERE LOWER(t) LIKE %?1% AND c.id > ?2 ORDER BY c.id")
+    List<Long> findIdsByTagContaining(String tag, long after, Pageable pageable);
+
+    // Tag filter fallback while the bitmap index is being built: IDs after the cursor carrying
+    // at least minMatches of the tags, optionally restricted by favorite status
+    @Query("SELECT c.id FROM Contact c JOIN c.tags t"
+            + " WHERE t IN ?1 AND c.id > ?2 AND (?3 IS NULL OR c.isFavorite = ?3)"
+            + " GROUP BY c.id HAVING COUNT(DISTINCT t) >= ?4 ORDER BY c.id")
+    List<Long> findIdsByTags(Collection<String> tags, long after, Boolean favorite, long minMatches,
+            Pageable pageable);
+
+    @Query("SELECT c.id FROM Contact c"
+            + " WHERE c.id > ?1 AND (?2 IS NULL OR c.isFavorite = ?2) ORDER BY c.id")
+    List<Long> findIdsAfter(long after, Boolean favorite, Pageable pageable);
+
+    // Aggregates for the statistics panel, so clients never page through the whole book to count
+    long countByIsFavoriteTrue();
+
+    @Query("SELECT COUNT(p.number) FROM Contact c JOIN c.phones p")
+    long countPhones();
+
+    @Query("SELECT COUNT(e) FROM Contact c JOIN c.emails e")
+    long countEmails();
+
+    // Tag usage as rows of [tag, isFavorite, contact count]; only used until the in-memory counts
+    // are built
+    @Query("SELECT t, c.isFavorite, COUNT(DISTINCT c.id) FROM Contact c JOIN c.tags t"
+            + " GROUP BY t, c.isFavorite")
+    List<Object[]> countContactsByTagAndFavorite();
+
+    // Batched element-collection loads for list reads: rows of [contactId, value] in list order
+    @Query("SELECT c.id, p.number FROM Contact c JOIN c.phones p"
+            + " WHERE c.id IN ?1 ORDER BY c.id, INDEX(p)")
+    List<Object[]> findPhonesByContactIds(Collection<Long> contactIds);
+
+    @Query("SELECT c.id, e FROM Contact c JOIN c.emails e WHERE c.id IN ?1 ORDER BY c.id, INDEX(e)")
+    List<Object[]> findEmailsByContactIds(Collection<Long> contactIds);
+
+    @Query("SELECT c.id, t FROM Contact c JOIN c.tags t WHERE c.id IN ?1 ORDER BY c.id, INDEX(t)")
+    List<Object[]> findTagsByContactIds(Collection<Long> contactIds);
 }
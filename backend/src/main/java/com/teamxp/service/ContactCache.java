@@ -0,0 +1,94 @@
+package com.teamxp.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.teamxp.dto.CacheStatsDTO;
+import com.teamxp.dto.ContactDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Size- and TTL-bounded cache of built contact DTOs and of the favorites list.
+ * Cached DTOs are shared between requests and must not be modified.
+ */
+@Component
+public class ContactCache {
+
+    private static final String FAVORITES_KEY = "favorites";
+
+    private final Cache<Long, ContactDTO> contacts;
+    private final Cache<String, List<ContactDTO>> favorites;
+
+    public ContactCache(@Value("${contacts.cache.max-size:10000}") long maxSize,
+                        @Value("${contacts.cache.ttl-seconds:300}") long ttlSeconds,
+                        MeterRegistry meterRegistry) {
+        this.contacts = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+                .recordStats()
+                .build();
+        this.favorites = Caffeine.newBuilder()
+                .maximumSize(1)
+                .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+                .recordStats()
+                .build();
+
+        // Hit, miss and eviction counts as cache.* meters next to /contacts/cache/stats
+        CaffeineCacheMetrics.monitor(meterRegistry, contacts, "contacts");
+        CaffeineCacheMetrics.monitor(meterRegistry, favorites, "favorites");
+    }
+
+    // Get a contact, building it with the loader on a miss
+    public ContactDTO getContact(Long id, Function<Long, ContactDTO> loader) {
+        return contacts.get(id, loader);
+    }
+
+    // Cached contact or null, never loads
+    public ContactDTO peekContact(Long id) {
+        return contacts.getIfPresent(id);
+    }
+
+    // Get the favorites list, building it with the loader on a miss
+    public List<ContactDTO> getFavorites(Supplier<List<ContactDTO>> loader) {
+        return favorites.get(FAVORITES_KEY, key -> loader.get());
+    }
+
+    // Replace a cached contact, a contact evicted in the meantime stays evicted
+    public void updateContact(Long id, UnaryOperator<ContactDTO> update) {
+        contacts.asMap().computeIfPresent(id, (key, contact) -> update.apply(contact));
+    }
+
+    // Replace the cached favorites list, if it is cached
+    public void updateFavorites(UnaryOperator<List<ContactDTO>> update) {
+        favorites.asMap().computeIfPresent(FAVORITES_KEY, (key, list) -> update.apply(list));
+    }
+
+    public void evictContact(Long id) {
+        contacts.invalidate(id);
+    }
+
+    public void evictFavorites() {
+        favorites.invalidate(FAVORITES_KEY);
+    }
+
+    public List<CacheStatsDTO> stats() {
+        return Arrays.asList(
+                toStats("contacts", contacts.estimatedSize(), contacts.stats()),
+                toStats("favorites", favorites.estimatedSize(), favorites.stats()));
+    }
+
+    private CacheStatsDTO toStats(String name, long size, CacheStats stats) {
+        return new CacheStatsDTO(name, size, stats.hitCount(), stats.missCount(),
+                stats.evictionCount(), stats.hitRate());
+    }
+}
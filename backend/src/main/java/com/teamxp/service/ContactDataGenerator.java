@@ -0,0 +1,145 @@
+package com.teamxp.service;
+
+import com.teamxp.dto.ContactRequestDTO;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Produces realistic synthetic contacts for load tests and large local datasets.
+ * The same seed always yields the same sequence of contacts.
+ */
+public class ContactDataGenerator {
+
+    private static final String[] FIRST_NAMES = {
+            "James", "Mary", "Robert", "Patricia", "John", "Jennifer", "Michael", "Linda", "David",
+            "Elizabeth", "Wei", "Fang", "Hiroshi", "Yuki", "Carlos", "Sofia", "Ahmed", "Fatima",
+            "Ivan", "Olga", "Liam", "Emma", "Noah", "Olivia", "Lucas", "Mia", "Mateo", "Amelia",
+            "Arjun", "Priya"
+    };
+    private static final String[] LAST_NAMES = {
+            "Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia", "Miller", "Davis",
+            "Rodriguez", "Martinez", "Wang", "Li", "Zhang", "Tanaka", "Suzuki", "Silva", "Khan",
+            "Petrov", "Novak", "Müller", "O'Brien", "Nguyen", "Kim", "Patel", "Rossi", "Dubois",
+            "Kowalski", "Jensen", "Cohen", "Haddad"
+    };
+    private static final String[] EMAIL_DOMAINS = {
+            "example.com", "mail.example.org", "company.com", "work.example.net",
+            "personal.example.com"
+    };
+    private static final String[] TAGS = {
+            "Family", "Friend", "Work", "VIP", "College", "Manager", "Client", "Supplier",
+            "Neighbor", "Gym", "Doctor", "School", "Travel", "Book Club", "Emergency", "Colleague",
+            "Vendor", "Investor", "Mentor", "Team"
+    };
+    private static final String[] STREETS = {
+            "Main Street", "Oak Avenue", "Pine Road", "Maple Lane", "Cedar Court", "Elm Street",
+            "Lakeview Drive", "Sunset Boulevard", "River Road", "Park Place"
+    };
+    private static final String[] CITIES = {
+            "New York, NY 10001", "Los Angeles, CA 90001", "Chicago, IL 60601", "Houston, TX 77001",
+            "Seattle, WA 98101", "Boston, MA 02101", "Denver, CO 80201", "Austin, TX 73301"
+    };
+    private static final String[] NOTE_SENTENCES = {
+            "Met at the annual industry conference.",
+            "Prefers email over phone calls during working hours.",
+            "Follow up about the contract renewal next quarter.",
+            "Birthday is in the spring, send a card.",
+            "Has two kids and a dog named Biscuit.",
+            "Introduced by a mutual friend from college.",
+            "Call only in emergencies after 9 PM.",
+            "Interested in the new product line, send the brochure.",
+            "Speaks English, Spanish and some Mandarin.",
+            "Moved offices last year, double-check the address before mailing."
+    };
+
+    private final Random random;
+
+    public ContactDataGenerator(long seed) {
+        this.random = new Random(seed);
+    }
+
+    public ContactRequestDTO next() {
+        String firstName = pick(FIRST_NAMES);
+        String lastName = pick(LAST_NAMES);
+
+        ContactRequestDTO request = new ContactRequestDTO();
+        request.setName(firstName + " " + lastName);
+        request.setPhones(phones(1 + random.nextInt(3)));
+        request.setEmails(emails(firstName, lastName, 1 + random.nextInt(4)));
+        request.setAddress((1 + random.nextInt(9999)) + " " + pick(STREETS) + ", " + pick(CITIES));
+        request.setIsFavorite(random.nextInt(10) == 0);
+        request.setTags(tags(1 + random.nextInt(5)));
+        request.setNotes(notes(2 + random.nextInt(20)));
+        return request;
+    }
+
+    private List<String> phones(int count) {
+        List<String> phones = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            int area = 200 + random.nextInt(800);
+            int exchange = 200 + random.nextInt(800);
+            int line = random.nextInt(10000);
+            // Mix the formats people actually type
+            switch (random.nextInt(6)) {
+                case 0:
+                    phones.add(String.format("(%03d) %03d-%04d", area, exchange, line));
+                    break;
+                case 1:
+                    phones.add(String.format("+1-%03d-%03d-%04d", area, exchange, line));
+                    break;
+                case 2:
+                    phones.add(String.format("%03d.%03d.%04d", area, exchange, line));
+                    break;
+                case 3:
+                    phones.add(String.format("+44 20 %04d %04d", random.nextInt(10000), line));
+                    break;
+                case 4:
+                    phones.add(String.format(
+                            "0%02d-%03d-%04d", random.nextInt(100), exchange, line));
+                    break;
+                default:
+                    phones.add(String.format("%03d%03d%04d", area, exchange, line));
+                    break;
+            }
+        }
+        return phones;
+    }
+
+    private List<String> emails(String firstName, String lastName, int count) {
+        String local = (firstName + "." + lastName).toLowerCase().replaceAll("[^a-z.]", "");
+        List<String> emails = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            String suffix = i == 0 ? "" : String.valueOf(random.nextInt(1000));
+            emails.add(local + suffix + "@" + pick(EMAIL_DOMAINS));
+        }
+        return emails;
+    }
+
+    private List<String> tags(int count) {
+        List<String> tags = new ArrayList<>();
+        while (tags.size() < count) {
+            String tag = pick(TAGS);
+            if (!tags.contains(tag)) {
+                tags.add(tag);
+            }
+        }
+        return tags;
+    }
+
+    private String notes(int sentences) {
+        StringBuilder notes = new StringBuilder();
+        for (int i = 0; i < sentences && notes.length() < 900; i++) {
+            if (notes.length() > 0) {
+                notes.append(' ');
+            }
+            notes.append(pick(NOTE_SENTENCES));
+        }
+        return notes.toString();
+    }
+
+    private String pick(String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+}
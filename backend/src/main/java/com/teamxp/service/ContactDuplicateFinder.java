@@ -0,0 +1,318 @@
+package com.teamxp.service;
+
+import com.teamxp.dto.ContactDTO;
+import com.teamxp.dto.ContactPageDTO;
+import com.teamxp.dto.DuplicateClusterDTO;
+import com.teamxp.dto.DuplicateReportDTO;
+import com.teamxp.entity.PhoneNumber;
+import org.apache.commons.codec.language.DoubleMetaphone;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Finds duplicate contacts without comparing every pair.
+ * Each contact gets blocking keys (phone digits, lowercased email, phonetic name key); only
+ * contacts sharing a key are scored, and pairs above the threshold are joined into clusters with
+ * union-find. Names that sound alike count as a full name match and let a weaker signal (same
+ * address or email local part) reach the threshold, so a phonetic block can link two contacts
+ * on its own.
+ */
+@Component
+public class ContactDuplicateFinder {
+
+    // Weights add up so that two independent signals are needed for a match
+    static final double PHONE_WEIGHT = 0.45;
+    static final double EMAIL_WEIGHT = 0.45;
+    static final double NAME_WEIGHT = 0.4;
+    // Only counted when the names sound alike, so a shared address alone never matches
+    static final double SUPPORT_WEIGHT = 0.4;
+    static final double MATCH_THRESHOLD = 0.8;
+    // Keys shared by more contacts than this (office switchboards, common names) are too weak to
+    // compare
+    static final int MAX_BLOCK_SIZE = 100;
+    // Block entries pack a 40-bit key hash above a 24-bit contact index
+    private static final int INDEX_BITS = 24;
+    private static final int MAX_CONTACTS = 1 << INDEX_BITS;
+    private static final int PAGE_SIZE = 500;
+
+    @Autowired
+    private ContactService contactService;
+
+    private final DoubleMetaphone metaphone = new DoubleMetaphone();
+
+    // Scan the whole book; the listener receives the number of contacts read so far
+    public DuplicateReportDTO findDuplicates(ExportProgressListener listener) {
+        List<Candidate> candidates = new ArrayList<>();
+        long[] entries = new long[1024];
+        int entryCount = 0;
+
+        Long after = null;
+        do {
+            ContactPageDTO page = contactService.getContactsPage(after, PAGE_SIZE);
+            for (ContactDTO contact : page.getContacts()) {
+                if (candidates.size() >= MAX_CONTACTS) {
+                    throw new IllegalStateException(
+                            "Duplicate scan supports at most " + MAX_CONTACTS + " contacts");
+                }
+                Candidate candidate = new Candidate(contact);
+                int index = candidates.size();
+                candidates.add(candidate);
+                for (String key : blockingKeys(candidate)) {
+                    if (entryCount == entries.length) {
+                        entries = Arrays.copyOf(entries, entries.length * 2);
+                    }
+                    entries[entryCount++] = (hash40(key) << INDEX_BITS) | index;
+                }
+            }
+            if (listener != null) {
+                listener.onProgress(candidates.size());
+            }
+            after = page.getNext();
+        } while (after != null);
+
+        DuplicateReportDTO report = new DuplicateReportDTO();
+        report.setScannedContacts(candidates.size());
+
+        // Sorting groups equal keys into runs, each run is one block
+        Arrays.sort(entries, 0, entryCount);
+        int[] parent = new int[candidates.size()];
+        for (int i = 0; i < parent.length; i++) {
+            parent[i] = i;
+        }
+        long compared = 0;
+        long skipped = 0;
+        int start = 0;
+        while (start < entryCount) {
+            long block = entries[start] >>> INDEX_BITS;
+            int end = start + 1;
+            while (end < entryCount && entries[end] >>> INDEX_BITS == block) {
+                end++;
+            }
+            int size = end - start;
+            if (size > MAX_BLOCK_SIZE) {
+                skipped++;
+            } else {
+                for (int i = start; i < end; i++) {
+                    for (int j = i + 1; j < end; j++) {
+                        int a = indexOf(entries[i]);
+                        int b = indexOf(entries[j]);
+                        if (a == b || find(parent, a) == find(parent, b)) {
+                            continue;
+                        }
+                        compared++;
+                        if (score(candidates.get(a), candidates.get(b)) >= MATCH_THRESHOLD) {
+                            union(parent, a, b);
+                        }
+                    }
+                }
+            }
+            start = end;
+        }
+        report.setComparedPairs(compared);
+        report.setSkippedBlocks(skipped);
+
+        // Candidates are in ID order, so every cluster lists its IDs ascending
+        Map<Integer, List<Long>> groups = new LinkedHashMap<>();
+        for (int i = 0; i < parent.length; i++) {
+            groups.computeIfAbsent(find(parent, i), root -> new ArrayList<>())
+                    .add(candidates.get(i).id);
+        }
+        long duplicates = 0;
+        for (List<Long> ids : groups.values()) {
+            if (ids.size() > 1) {
+                duplicates += ids.size() - 1;
+                report.getClusters().add(new DuplicateClusterDTO(ids));
+            }
+        }
+        report.setDuplicateContacts(duplicates);
+        return report;
+    }
+
+    private List<String> blockingKeys(Candidate candidate) {
+        List<String> keys = new ArrayList<>();
+        for (String phone : candidate.phones) {
+            keys.add("p:" + phone);
+        }
+        for (String email : candidate.emails) {
+            keys.add("e:" + email);
+        }
+        if (!candidate.nameKey.isEmpty()) {
+            keys.add("n:" + candidate.nameKey);
+        }
+        return keys;
+    }
+
+    // Metaphone code of every name token, sorted so "Smith John" and "John Smyth" share a key
+    String phoneticKey(String name) {
+        List<String> codes = new ArrayList<>();
+        for (String token : name.split("[^\\p{L}]+")) {
+            if (!token.isEmpty()) {
+                String code = metaphone.doubleMetaphone(token);
+                codes.add(code != null && !code.isEmpty() ? code : token);
+            }
+        }
+        codes.sort(String::compareTo);
+        return String.join(" ", codes);
+    }
+
+    static double score(Candidate a, Candidate b) {
+        double score = 0;
+        if (sharesAny(a.phones, b.phones)) {
+            score += PHONE_WEIGHT;
+        }
+        if (sharesAny(a.emails, b.emails)) {
+            score += EMAIL_WEIGHT;
+        }
+        boolean soundAlike = !a.nameKey.isEmpty() && a.nameKey.equals(b.nameKey);
+        score += NAME_WEIGHT * (soundAlike ? 1.0 : jaroWinkler(a.name, b.name));
+        if (soundAlike && (a.address != null && a.address.equals(b.address)
+                || sharesAny(a.emailLocals, b.emailLocals))) {
+            score += SUPPORT_WEIGHT;
+        }
+        return Math.min(1.0, score);
+    }
+
+    private static boolean sharesAny(String[] a, String[] b) {
+        for (String x : a) {
+            for (String y : b) {
+                if (x.equals(y)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    // Jaro-Winkler similarity in [0, 1], tolerant of typos and transpositions in short strings
+    static double jaroWinkler(String s1, String s2) {
+        if (s1.equals(s2)) {
+            return 1.0;
+        }
+        if (s1.isEmpty() || s2.isEmpty()) {
+            return 0.0;
+        }
+        int window = Math.max(0, Math.max(s1.length(), s2.length()) / 2 - 1);
+        boolean[] matched1 = new boolean[s1.length()];
+        boolean[] matched2 = new boolean[s2.length()];
+        int matches = 0;
+        for (int i = 0; i < s1.length(); i++) {
+            int from = Math.max(0, i - window);
+            int to = Math.min(s2.length() - 1, i + window);
+            for (int j = from; j <= to; j++) {
+                if (!matched2[j] && s1.charAt(i) == s2.charAt(j)) {
+                    matched1[i] = true;
+                    matched2[j] = true;
+                    matches++;
+                    break;
+                }
+            }
+        }
+        if (matches == 0) {
+            return 0.0;
+        }
+        int transpositions = 0;
+        int k = 0;
+        for (int i = 0; i < s1.length(); i++) {
+            if (matched1[i]) {
+                while (!matched2[k]) {
+                    k++;
+                }
+                if (s1.charAt(i) != s2.charAt(k)) {
+                    transpositions++;
+                }
+                k++;
+            }
+        }
+        double m = matches;
+        double jaro = (m / s1.length() + m / s2.length() + (m - transpositions / 2.0) / m) / 3.0;
+        int prefix = 0;
+        int maxPrefix = Math.min(4, Math.min(s1.length(), s2.length()));
+        while (prefix < maxPrefix && s1.charAt(prefix) == s2.charAt(prefix)) {
+            prefix++;
+        }
+        return jaro + prefix * 0.1 * (1 - jaro);
+    }
+
+    private static int indexOf(long entry) {
+        return (int) (entry & (MAX_CONTACTS - 1));
+    }
+
+    // 64-bit FNV-1a folded to 40 bits; a rare collision only adds comparisons, scoring still
+    // decides
+    private static long hash40(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return (hash ^ (hash >>> 40)) & ((1L << 40) - 1);
+    }
+
+    private static int find(int[] parent, int i) {
+        while (parent[i] != i) {
+            parent[i] = parent[parent[i]];
+            i = parent[i];
+        }
+        return i;
+    }
+
+    private static void union(int[] parent, int a, int b) {
+        int rootA = find(parent, a);
+        int rootB = find(parent, b);
+        // Keep the smaller index (older contact) as root
+        if (rootA < rootB) {
+            parent[rootB] = rootA;
+        } else if (rootB < rootA) {
+            parent[rootA] = rootB;
+        }
+    }
+
+    // Compact comparison form of a contact
+    final class Candidate {
+        final long id;
+        final String name;
+        final String nameKey;
+        final String address;
+        final String[] phones;
+        final String[] emails;
+        final String[] emailLocals;
+
+        Candidate(ContactDTO contact) {
+            this.id = contact.getId();
+            this.name = contact.getName() == null
+                    ? "" : contact.getName().trim().toLowerCase(Locale.ROOT);
+            this.nameKey = phoneticKey(name);
+            // Case, punctuation and spacing differences do not make a different address
+            String address = contact.getAddress() == null ? "" : contact.getAddress()
+                    .toLowerCase(Locale.ROOT)
+                    .replaceAll("[^\\p{L}\\p{N}]+", " ")
+                    .trim();
+            this.address = address.isEmpty() ? null : address;
+            // Phones are compared on their trailing digits, like the caller-ID lookup
+            this.phones = contact.getPhones().stream()
+                    .map(PhoneNumber::normalize)
+                    .filter(digits -> digits.length() >= ContactServiceImpl.MIN_PHONE_SUFFIX_DIGITS)
+                    .map(digits -> digits.substring(
+                            Math.max(0, digits.length() - ContactServiceImpl.PHONE_SUFFIX_DIGITS)))
+                    .distinct()
+                    .toArray(String[]::new);
+            this.emails = contact.getEmails().stream()
+                    .filter(email -> email != null && !email.trim().isEmpty())
+                    .map(email -> email.trim().toLowerCase(Locale.ROOT))
+                    .distinct()
+                    .toArray(String[]::new);
+            this.emailLocals = Arrays.stream(emails)
+                    .map(email -> email.substring(0, Math.max(0, email.indexOf('@'))))
+                    .filter(local -> !local.isEmpty())
+                    .distinct()
+                    .toArray(String[]::new);
+        }
+    }
+}
@@ -0,0 +1,323 @@
+package com.teamxp.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.teamxp.dto.DuplicateReportDTO;
+import com.teamxp.dto.ImportSummaryDTO;
+import com.teamxp.dto.JobStatusDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs imports, exports and duplicate scans in the background so large files do not hold a
+ * request thread.
+ * Jobs run on a small bounded pool of low-priority threads, which caps how many database
+ * connections and CPU cores batch work can take away from regular requests.
+ */
+@Service
+public class ContactJobService {
+
+    public static final String QUEUED = "QUEUED";
+    public static final String RUNNING = "RUNNING";
+    public static final String SUCCEEDED = "SUCCEEDED";
+    public static final String FAILED = "FAILED";
+
+    private static final Logger log = LoggerFactory.getLogger(ContactJobService.class);
+
+    @Autowired
+    private ContactService contactService;
+
+    @Autowired
+    private ContactDuplicateFinder duplicateFinder;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${contacts.jobs.threads:2}")
+    private int threads;
+
+    @Value("${contacts.jobs.queue-capacity:20}")
+    private int queueCapacity;
+
+    @Value("${contacts.jobs.retention-minutes:60}")
+    private long retentionMinutes;
+
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    public void start() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        // A full queue rejects new jobs instead of piling up work
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread =
+                            new Thread(runnable, "contact-job-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.MIN_PRIORITY);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+        for (Job job : jobs.values()) {
+            job.deleteFile();
+        }
+    }
+
+    // Copy the upload to a temp file and queue its import; throws RejectedExecutionException when
+    // the queue is full
+    public JobStatusDTO submitImport(MultipartFile file) throws IOException {
+        String filename = file.getOriginalFilename();
+        String format = importFormat(filename);
+
+        // The multipart upload is deleted when the request ends, the job reads its own copy
+        File upload = File.createTempFile("contacts-job-", "-" + new File(filename).getName());
+        file.transferTo(upload);
+
+        Job job = new Job("import", format, upload);
+        return submit(job, () -> runImport(job, filename));
+    }
+
+    // Queue an export to a temp file; throws RejectedExecutionException when the queue is full
+    public JobStatusDTO submitExport(String format) throws IOException {
+        String normalized = format == null ? "" : format.toLowerCase(Locale.ROOT);
+        if (!normalized.equals("excel") && !normalized.equals("json")
+                && !normalized.equals("ndjson")) {
+            throw new IllegalArgumentException("Unsupported export format: " + format);
+        }
+
+        File result = File.createTempFile("contacts-export-", "." + fileExtension(normalized));
+        Job job = new Job("export", normalized, result);
+        return submit(job, () -> runExport(job));
+    }
+
+    // Queue a duplicate scan of the whole book, the report is written as JSON to a temp file
+    public JobStatusDTO submitDuplicateScan() throws IOException {
+        File result = File.createTempFile("contacts-duplicates-", ".json");
+        Job job = new Job("dedup", "json", result);
+        return submit(job, () -> runDuplicateScan(job));
+    }
+
+    // Job status or null when the ID is unknown or expired
+    public JobStatusDTO getJob(String id) {
+        Job job = jobs.get(id);
+        return job != null ? job.toDTO() : null;
+    }
+
+    // Finished result file, or null when the job is unknown, an import or not finished
+    public File getResult(String id) {
+        Job job = jobs.get(id);
+        if (job == null || !job.hasResult()) {
+            return null;
+        }
+        return job.file;
+    }
+
+    public static String fileExtension(String format) {
+        return format.equals("excel") ? "xlsx" : format;
+    }
+
+    // Forget finished jobs after the retention period and delete their files
+    @Scheduled(fixedDelayString = "${contacts.jobs.cleanup-interval-ms:600000}")
+    public void removeExpiredJobs() {
+        long cutoff = System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(retentionMinutes);
+        List<String> expired = new ArrayList<>();
+        for (Job job : jobs.values()) {
+            if (job.finishedAt != null && job.finishedAt.getTime() < cutoff) {
+                expired.add(job.id);
+            }
+        }
+        for (String id : expired) {
+            Job job = jobs.remove(id);
+            if (job != null) {
+                job.deleteFile();
+            }
+        }
+    }
+
+    private JobStatusDTO submit(Job job, Runnable work) {
+        jobs.put(job.id, job);
+        try {
+            executor.execute(() -> run(job, work));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id);
+            job.deleteFile();
+            throw e;
+        }
+        return job.toDTO();
+    }
+
+    private void run(Job job, Runnable work) {
+        job.startedAt = new Date();
+        job.state = RUNNING;
+        try {
+            work.run();
+            job.state = SUCCEEDED;
+        } catch (Throwable e) {
+            // Errors as well, a job must never be left RUNNING
+            log.warn("Job {} failed", job.id, e);
+            job.error = e.getMessage() != null ? e.getMessage() : e.toString();
+            job.state = FAILED;
+            // A partial result is of no use
+            job.deleteFile();
+            if (e instanceof Error) {
+                throw (Error) e;
+            }
+        } finally {
+            job.finishedAt = new Date();
+        }
+    }
+
+    private void runImport(Job job, String filename) {
+        ImportProgressListener listener = progress -> {
+            job.processedRows = progress.getImported();
+            job.failedRows = progress.getFailed();
+        };
+
+        try {
+            ImportSummaryDTO summary;
+            if (job.format.equals("excel")) {
+                summary = contactService.importContactsFromExcel(job.file, filename, listener);
+            } else {
+                try (InputStream inputStream =
+                             new BufferedInputStream(Files.newInputStream(job.file.toPath()))) {
+                    summary = job.format.equals("json")
+                            ? contactService.importContactsFromJson(inputStream, listener)
+                            : contactService.importContactsFromNdjson(inputStream, listener);
+                }
+            }
+            listener.onProgress(summary);
+            job.failedRowNumbers = summary.getFailedRows();
+        } catch (IOException e) {
+            throw new RuntimeException("Error reading uploaded file: " + e.getMessage(), e);
+        } finally {
+            // The upload is not needed once imported
+            job.deleteFile();
+        }
+    }
+
+    private void runExport(Job job) {
+        ExportProgressListener listener = rows -> job.processedRows = rows;
+
+        try (OutputStream outputStream =
+                     new BufferedOutputStream(Files.newOutputStream(job.file.toPath()))) {
+            if (job.format.equals("excel")) {
+                contactService.exportContactsToExcel(outputStream, listener);
+            } else if (job.format.equals("json")) {
+                contactService.exportContactsToJson(outputStream, listener);
+            } else {
+                contactService.exportContactsToNdjson(outputStream, listener);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Error writing export file: " + e.getMessage(), e);
+        }
+    }
+
+    private void runDuplicateScan(Job job) {
+        DuplicateReportDTO report =
+                duplicateFinder.findDuplicates(rows -> job.processedRows = rows);
+        try (OutputStream outputStream =
+                     new BufferedOutputStream(Files.newOutputStream(job.file.toPath()))) {
+            objectMapper.writeValue(outputStream, report);
+        } catch (IOException e) {
+            throw new RuntimeException("Error writing duplicate report: " + e.getMessage(), e);
+        }
+    }
+
+    private String importFormat(String filename) {
+        String name = filename == null ? "" : filename.toLowerCase(Locale.ROOT);
+        if (name.endsWith(".xlsx") || name.endsWith(".xls")) {
+            return "excel";
+        }
+        if (name.endsWith(".json")) {
+            return "json";
+        }
+        if (name.endsWith(".ndjson") || name.endsWith(".jsonl")) {
+            return "ndjson";
+        }
+        throw new IllegalArgumentException("Unsupported import file: " + filename);
+    }
+
+    // Mutable job state, written by the worker thread and read by status requests
+    private static final class Job {
+        private final String id = UUID.randomUUID().toString();
+        private final String type;
+        private final String format;
+        private final File file;
+        private final Date createdAt = new Date();
+        private volatile String state = QUEUED;
+        private volatile long processedRows;
+        private volatile int failedRows;
+        private volatile List<Integer> failedRowNumbers = new ArrayList<>();
+        private volatile String error;
+        private volatile Date startedAt;
+        private volatile Date finishedAt;
+
+        Job(String type, String format, File file) {
+            this.type = type;
+            this.format = format;
+            this.file = file;
+        }
+
+        void deleteFile() {
+            try {
+                Files.deleteIfExists(file.toPath());
+            } catch (IOException e) {
+                log.warn("Could not delete job file {}: {}", file, e.getMessage());
+            }
+        }
+
+        // Imports consume their file, every other job type produces one
+        boolean hasResult() {
+            return !type.equals("import") && SUCCEEDED.equals(state);
+        }
+
+        JobStatusDTO toDTO() {
+            JobStatusDTO dto = new JobStatusDTO();
+            dto.setId(id);
+            dto.setType(type);
+            dto.setFormat(format);
+            dto.setState(state);
+            dto.setProcessedRows(processedRows);
+            dto.setFailedRows(failedRows);
+            dto.setFailedRowNumbers(new ArrayList<>(failedRowNumbers));
+            dto.setError(error);
+            dto.setCreatedAt(createdAt);
+            dto.setStartedAt(startedAt);
+            dto.setFinishedAt(finishedAt);
+            if (hasResult()) {
+                dto.setResultUrl("/jobs/" + id + "/result");
+            }
+            return dto;
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package com.teamxp.service;
+
+import com.teamxp.dto.ContactDTO;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory n-gram inverted index over contact name, phones, emails and tags.
+ * Bigrams and trigrams of every lowercased value map to sorted posting lists of contact IDs,
+ * so a substring search intersects a few posting lists instead of scanning the tables.
+ */
+@Component
+public class ContactSearchIndex {
+
+    private static final int MIN_GRAM = 2;
+    private static final int MAX_GRAM = 3;
+    // Separates field values in a document so a match never spans two values
+    private static final char VALUE_SEPARATOR = '\n';
+
+    // Replaced as a whole when a rebuilt index is swapped in, always accessed under the lock
+    private Map<String, Postings> postings = new HashMap<>();
+    private NavigableMap<Long, String> documents = new TreeMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // False until the first full rebuild after startup has finished
+    private volatile boolean ready;
+
+    // Add or replace a contact in the index
+    public void index(ContactDTO contact) {
+        String document = buildDocument(contact);
+        lock.writeLock().lock();
+        try {
+            String previous = documents.put(contact.getId(), document);
+            if (previous != null) {
+                for (String gram : grams(previous)) {
+                    removePosting(gram, contact.getId());
+                }
+            }
+            for (String gram : grams(document)) {
+                postings.computeIfAbsent(gram, g -> new Postings()).add(contact.getId());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Remove a contact from the index
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            String previous = documents.remove(id);
+            if (previous != null) {
+                for (String gram : grams(previous)) {
+                    removePosting(gram, id);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Take over the contents of an index rebuilt off to the side, which must not be used afterwards
+    public void replaceWith(ContactSearchIndex rebuilt) {
+        lock.writeLock().lock();
+        try {
+            postings = rebuilt.postings;
+            documents = rebuilt.documents;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void markReady() {
+        ready = true;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Find IDs after the cursor of contacts with a value containing the term (case-insensitive),
+    // in ID order
+    public List<Long> search(String term, long after, int maxResults) {
+        String needle = term.toLowerCase(Locale.ROOT);
+        List<Long> results = new ArrayList<>();
+
+        lock.readLock().lock();
+        try {
+            if (needle.length() < MIN_GRAM) {
+                // Single characters are not indexed, fall back to scanning the documents
+                Map<Long, String> remaining = documents.tailMap(after, false);
+                for (Map.Entry<Long, String> document : remaining.entrySet()) {
+                    if (results.size() >= maxResults) {
+                        break;
+                    }
+                    if (document.getValue().indexOf(needle) >= 0) {
+                        results.add(document.getKey());
+                    }
+                }
+                return results;
+            }
+
+            int gramSize = Math.min(needle.length(), MAX_GRAM);
+            List<Postings> lists = new ArrayList<>();
+            for (String gram : gramsOf(needle, gramSize)) {
+                Postings list = postings.get(gram);
+                if (list == null) {
+                    return results;
+                }
+                lists.add(list);
+            }
+            // Walk the shortest list and probe the others
+            lists.sort(Comparator.comparingInt(list -> list.size));
+            Postings shortest = lists.get(0);
+            boolean exact = needle.length() == gramSize;
+
+            int start = shortest.indexAfter(after);
+            for (int i = start; i < shortest.size && results.size() < maxResults; i++) {
+                long id = shortest.ids[i];
+                boolean candidate = true;
+                for (int j = 1; j < lists.size() && candidate; j++) {
+                    candidate = lists.get(j).contains(id);
+                }
+                // Grams only narrow the candidates, longer terms still need a substring check
+                if (candidate && (exact || documents.get(id).indexOf(needle) >= 0)) {
+                    results.add(id);
+                }
+            }
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void removePosting(String gram, Long id) {
+        Postings list = postings.get(gram);
+        if (list != null) {
+            list.remove(id);
+            if (list.size == 0) {
+                postings.remove(gram);
+            }
+        }
+    }
+
+    private String buildDocument(ContactDTO contact) {
+        List<String> values = new ArrayList<>();
+        values.add(contact.getName());
+        values.addAll(contact.getPhones());
+        values.addAll(contact.getEmails());
+        values.addAll(contact.getTags());
+
+        StringBuilder document = new StringBuilder();
+        for (String value : values) {
+            if (value != null && !value.isEmpty()) {
+                document.append(value.toLowerCase(Locale.ROOT)).append(VALUE_SEPARATOR);
+            }
+        }
+        return document.toString();
+    }
+
+    private Set<String> grams(String document) {
+        Set<String> grams = new HashSet<>();
+        for (String value : document.split(String.valueOf(VALUE_SEPARATOR))) {
+            for (int size = MIN_GRAM; size <= MAX_GRAM; size++) {
+                grams.addAll(gramsOf(value, size));
+            }
+        }
+        return grams;
+    }
+
+    private static Set<String> gramsOf(String value, int size) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + size <= value.length(); i++) {
+            grams.add(value.substring(i, i + size));
+        }
+        return grams;
+    }
+
+    // Sorted, growable array of contact IDs; new IDs are usually the largest so adds append
+    private static final class Postings {
+        private long[] ids = new long[4];
+        private int size;
+
+        void add(long id) {
+            if (size > 0 && ids[size - 1] >= id) {
+                int position = Arrays.binarySearch(ids, 0, size, id);
+                if (position >= 0) {
+                    return;
+                }
+                insertAt(-position - 1, id);
+                return;
+            }
+            insertAt(size, id);
+        }
+
+        void remove(long id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position >= 0) {
+                System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+                size--;
+            }
+        }
+
+        // Position of the first ID greater than the given one
+        int indexAfter(long id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            return position >= 0 ? position + 1 : -position - 1;
+        }
+
+        boolean contains(long id) {
+            return Arrays.binarySearch(ids, 0, size, id) >= 0;
+        }
+
+        private void insertAt(int position, long id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, position, ids, position + 1, size - position);
+            ids[position] = id;
+            size++;
+        }
+    }
+}
@@ -1,46 +1,141 @@
 package com.teamxp.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.teamxp.dto.BatchCreateResultDTO;
+import com.teamxp.dto.BulkUpdateResultDTO;
+import com.teamxp.dto.CacheStatsDTO;
+import com.teamxp.dto.ContactChangesDTO;
 import com.teamxp.dto.ContactDTO;
+import com.teamxp.dto.ContactPageDTO;
 import com.teamxp.dto.ContactRequestDTO;
+import com.teamxp.dto.ContactStatsDTO;
+import com.teamxp.dto.ImportSummaryDTO;
+import com.teamxp.dto.NameIndexEntryDTO;
+import com.teamxp.dto.TagCountDTO;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.File;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.List;
+import java.util.Map;
 
 public interface ContactService {
 
     // Get all contacts
     List<ContactDTO> getAllContacts();
 
+    // Get one page of contacts after the given ID cursor
+    ContactPageDTO getContactsPage(Long after, int limit);
+
+    // Get one page of contacts in the given sort order (name, -name, createdAt, -createdAt) after
+    // an opaque cursor
+    ContactPageDTO getContactsPage(String sort, String cursor, int limit);
+
+    // Contact count and name-sorted start cursor for every first letter of a name
+    List<NameIndexEntryDTO> getNameIndex();
+
     // Get contact by ID
     ContactDTO getContactById(Long id);
 
     // Create new contact
     ContactDTO createContact(ContactRequestDTO contactRequest);
 
+    // Create contacts in bulk, persisted in batched statements
+    BatchCreateResultDTO createContacts(List<ContactRequestDTO> contactRequests);
+
     // Update contact
     ContactDTO updateContact(Long id, ContactRequestDTO contactRequest);
 
+    // Apply a JSON merge patch (RFC 7396) to an existing contact
+    ContactDTO patchContact(Long id, JsonNode patch);
+
     // Delete contact
     void deleteContact(Long id);
 
+    // Delete every contact in ID-ordered batches, returns how many were deleted
+    int deleteAllContacts();
+
+    // Fold the duplicates' phones, emails, tags and notes into the survivor and delete the
+    // duplicates
+    ContactDTO mergeContacts(Long survivorId, List<Long> duplicateIds);
+
     // Get favorite contacts
     List<ContactDTO> getFavoriteContacts();
 
+    // Contacts changed and deleted since a sync token (null for a full sync)
+    ContactChangesDTO getChangesSince(String since, int limit);
+
+    // Weak entity tag of the contact collection, changes on every write
+    String getCollectionETag();
+
+    // Weak entity tag of one contact derived from id and lastModified, null when it does not exist
+    String getContactETag(Long id);
+
+    // Hit/miss/eviction statistics of the contact and favorites caches
+    List<CacheStatsDTO> getCacheStats();
+
     // Toggle favorite status
     ContactDTO toggleFavorite(Long id);
 
-    // Search contacts
-    List<ContactDTO> searchContacts(String keyword);
+    // Set favorite on or off for many contacts with one set-based update
+    BulkUpdateResultDTO updateFavorites(List<Long> ids, boolean favorite);
+
+    // Resolve a phone number to contacts by exact or trailing-digit match on the normalized form
+    List<ContactDTO> findContactsByPhone(String number);
+
+    // Resolve many phone numbers at once, keyed by the numbers as given
+    Map<String, List<ContactDTO>> findContactsByPhones(List<String> numbers);
+
+    // Contact, favorite, phone and email totals computed in the database
+    ContactStatsDTO getStatistics();
+
+    // Every tag with its contact count, split by favorite status
+    List<TagCountDTO> getTagCounts();
+
+    // Page of contacts carrying all (matchAll) or any of the tags, optionally only (non-)favorites
+    ContactPageDTO filterContacts(
+            List<String> tags, boolean matchAll, Boolean favorite, Long after, int limit);
+
+    // Page of contacts matching the keyword in ID order after the cursor, empty keyword lists all
+    ContactPageDTO searchContacts(String keyword, Long after, int limit);
 
     // Export contacts to Excel
     byte[] exportContactsToExcel();
 
-    // Import contacts from Excel
-    List<ContactDTO> importContactsFromExcel(MultipartFile file);
+    // Export contacts to Excel, streaming the workbook to the given output
+    void exportContactsToExcel(OutputStream outputStream);
+
+    // Same, reporting the exported row count after each page
+    void exportContactsToExcel(OutputStream outputStream, ExportProgressListener listener);
+
+    // Import contacts from Excel, persisting rows in batches
+    ImportSummaryDTO importContactsFromExcel(MultipartFile file);
+
+    // Import an Excel file already on disk, the filename decides between .xls and .xlsx
+    ImportSummaryDTO importContactsFromExcel(
+            File file, String filename, ImportProgressListener listener);
+
+    // Export contacts to JSON, streaming the array to the given output
+    void exportContactsToJson(OutputStream outputStream);
+
+    void exportContactsToJson(OutputStream outputStream, ExportProgressListener listener);
+
+    // Import contacts from a JSON array, streaming and persisting in batches
+    ImportSummaryDTO importContactsFromJson(InputStream inputStream);
+
+    ImportSummaryDTO importContactsFromJson(
+            InputStream inputStream, ImportProgressListener listener);
+
+    // Export contacts as newline-delimited JSON, one contact per line
+    void exportContactsToNdjson(OutputStream outputStream);
+
+    void exportContactsToNdjson(OutputStream outputStream, ExportProgressListener listener);
 
-    // Export contacts to JSON
-    String exportContactsToJson();
+    // Create count synthetic contacts; the same seed produces the same contacts
+    ImportSummaryDTO generateContacts(int count, long seed);
 
-    // Import contacts from JSON
-    List<ContactDTO> importContactsFromJson(String jsonContent);
+    // Import newline-delimited JSON line by line, reporting progress after each committed batch
+    ImportSummaryDTO importContactsFromNdjson(
+            InputStream inputStream, ImportProgressListener listener);
 }
@@ -1,40 +1,264 @@
 package com.teamxp.service;
 
+import com.teamxp.dto.BatchCreateResultDTO;
+import com.teamxp.dto.BatchItemErrorDTO;
+import com.teamxp.dto.BulkUpdateResultDTO;
+import com.teamxp.dto.CacheStatsDTO;
+import com.teamxp.dto.ContactChangesDTO;
 import com.teamxp.dto.ContactDTO;
+import com.teamxp.dto.ContactPageDTO;
 import com.teamxp.dto.ContactRequestDTO;
+import com.teamxp.dto.ContactStatsDTO;
+import com.teamxp.dto.ImportSummaryDTO;
+import com.teamxp.dto.NameIndexEntryDTO;
+import com.teamxp.dto.TagCountDTO;
 import com.teamxp.entity.Contact;
+import com.teamxp.entity.ContactDeletion;
+import com.teamxp.entity.PhoneNumber;
+import com.teamxp.repository.ContactDeletionRepository;
 import com.teamxp.repository.ContactRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.io.BufferedReader;
 import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.ArrayList;
-import java.util.Iterator;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 public class ContactServiceImpl implements ContactService {
 
+    private static final Logger log = LoggerFactory.getLogger(ContactServiceImpl.class);
+
+    static final int DEFAULT_PAGE_SIZE = 50;
+    static final int MAX_PAGE_SIZE = 500;
+    // Upper bound on IN-list size for the batched collection loads
+    static final int COLLECTION_BATCH_SIZE = 1000;
+    // Changes younger than this are left for the next delta sync call, on top of any open writes
+    static final long SYNC_SETTLE_MILLIS = 2000;
+    // Caller-ID suffix matching: inputs need this many digits, and this many trailing digits
+    // are compared
+    static final int MIN_PHONE_SUFFIX_DIGITS = 7;
+    static final int PHONE_SUFFIX_DIGITS = 9;
+    // Most numbers a single bulk phone lookup may resolve
+    static final int MAX_PHONE_LOOKUP_BATCH = 5000;
+    // Most synthetic contacts a single generate call may create
+    static final int MAX_GENERATED_CONTACTS = 1_000_000;
+    // Length of the notes column, merged notes are cut to fit
+    static final int MAX_NOTES_LENGTH = 1000;
+    // Rows kept in memory by the streaming Excel writer
+    static final int EXCEL_ROW_WINDOW = 100;
+    static final String[] EXCEL_HEADERS = {
+            "ID", "Name", "Favorite", "Primary Phone", "Additional Phones",
+            "Primary Email", "Additional Emails", "Address", "Tags", "Notes",
+            "Created Date", "Last Modified"
+    };
+    // Column widths in characters for the Excel export, in header order
+    static final int[] EXCEL_COLUMN_WIDTHS = {8, 24, 10, 18, 30, 28, 40, 40, 24, 50, 30, 30};
+
     @Autowired
     private ContactRepository contactRepository;
 
+    @Autowired
+    private ContactSearchIndex searchIndex;
+
+    @Autowired
+    private ContactTagIndex tagIndex;
+
+    @Autowired
+    private ContactCache contactCache;
+
+    @Autowired
+    private ContactVersionTracker versionTracker;
+
+    @Autowired
+    private ContactDeletionRepository deletionRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private WriteTrackingTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Index writes and the final catch-up of a rebuild hold this lock, so no write slips in
+    // between that catch-up and the swap
+    private final Object indexLock = new Object();
+    // IDs written while a rebuild is running, null otherwise
+    private volatile Set<Long> rebuildWrittenIds;
+
+    // Last computed letter index and the collection version it was computed for
+    private volatile NameIndex nameIndex;
+
+    @Value("${contacts.search.async-rebuild:false}")
+    private boolean asyncIndexRebuild;
+
+    @Value("${contacts.import.batch-size:500}")
+    private int importBatchSize;
+
+    @Value("${contacts.sync.tombstone-retention-days:30}")
+    private long tombstoneRetentionDays;
+
     @Override
     public List<ContactDTO> getAllContacts() {
-        return contactRepository.findAll().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return convertToDTOs(contactRepository.findAll());
+    }
+
+    @Override
+    public ContactPageDTO getContactsPage(Long after, int limit) {
+        int pageSize = limit <= 0 ? DEFAULT_PAGE_SIZE : Math.min(limit, MAX_PAGE_SIZE);
+        long cursor = after != null ? after : 0L;
+
+        // Fetch one extra row to learn whether another page follows,
+        // the query always seeks by ID so deep pages cost the same as the first
+        List<Contact> contacts = contactRepository.findByIdGreaterThanOrderByIdAsc(
+                cursor, PageRequest.of(0, pageSize + 1));
+
+        Long next = null;
+        if (contacts.size() > pageSize) {
+            contacts = contacts.subList(0, pageSize);
+            next = contacts.get(pageSize - 1).getId();
+        }
+
+        return new ContactPageDTO(convertToDTOs(contacts), next, pageSize);
+    }
+
+    @Override
+    public ContactPageDTO getContactsPage(String sort, String cursor, int limit) {
+        ContactSort order = ContactSort.parse(sort);
+        int pageSize = limit <= 0 ? DEFAULT_PAGE_SIZE : Math.min(limit, MAX_PAGE_SIZE);
+        PageRequest page = PageRequest.of(0, pageSize + 1, order.toSort());
+
+        // Seek past the (sort key, id) of the cursor row; the composite indexes keep deep pages
+        // cheap
+        List<Contact> contacts;
+        if (cursor == null || cursor.isEmpty()) {
+            contacts = contactRepository.findAllBy(page);
+        } else {
+            String[] position = order.decodeCursor(cursor);
+            Long id = Long.valueOf(position[1]);
+            if (order.isByName()) {
+                contacts = order.isDescending()
+                        ? contactRepository.findBeforeNameKey(position[0], id, page)
+                        : contactRepository.findAfterNameKey(position[0], id, page);
+            } else {
+                Date createdAt = new Date(Long.parseLong(position[0]));
+                contacts = order.isDescending()
+                        ? contactRepository.findBeforeCreatedAt(createdAt, id, page)
+                        : contactRepository.findAfterCreatedAt(createdAt, id, page);
+            }
+        }
+
+        String nextCursor = null;
+        if (contacts.size() > pageSize) {
+            contacts = contacts.subList(0, pageSize);
+            Contact last = contacts.get(pageSize - 1);
+            nextCursor = order.encodeCursor(order.sortKey(last), last.getId());
+        }
+
+        ContactPageDTO result = new ContactPageDTO(convertToDTOs(contacts), null, pageSize);
+        result.setNextCursor(nextCursor);
+        return result;
+    }
+
+    @Override
+    public List<NameIndexEntryDTO> getNameIndex() {
+        // One GROUP BY per collection version, repeated calls between writes are served from memory
+        String version = versionTracker.currentTag();
+        NameIndex cached = nameIndex;
+        if (cached != null && cached.version.equals(version)) {
+            return cached.entries;
+        }
+
+        Map<String, Long> counts = new TreeMap<>();
+        for (Object[] row : contactRepository.countByNameInitial()) {
+            counts.put((String) row[0], (Long) row[1]);
+        }
+        List<NameIndexEntryDTO> entries = new ArrayList<>();
+        for (Map.Entry<String, Long> count : counts.entrySet()) {
+            String initial = count.getKey();
+            // Every key starting with the initial sorts after (initial, 0), so this cursor starts
+            // at its first contact; it is a sort=name cursor and other sort orders reject it
+            entries.add(new NameIndexEntryDTO(initial.toUpperCase(Locale.ROOT), count.getValue(),
+                    ContactSort.NAME.encodeCursor(initial, 0L)));
+        }
+        nameIndex = new NameIndex(version, Collections.unmodifiableList(entries));
+        return entries;
     }
 
     @Override
     public ContactDTO getContactById(Long id) {
-        Contact contact = contactRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Contact not found with id: " + id));
-        return convertToDTO(contact);
+        return contactCache.getContact(id, this::loadContact);
+    }
+
+    // Cache loader: the lazy collections are read inside one short transaction
+    private ContactDTO loadContact(Long id) {
+        return transactionTemplate.execute(status -> {
+            Contact contact = contactRepository.findById(id)
+                    .orElseThrow(() -> new RuntimeException("Contact not found with id: " + id));
+            return convertToDTO(contact);
+        });
     }
 
     @Override
@@ -48,23 +272,96 @@ public class ContactServiceImpl implements ContactService {
         updateContactFromRequest(contact, contactRequest);
 
         Contact savedContact = contactRepository.save(contact);
-        return convertToDTO(savedContact);
+        ContactDTO savedDTO = convertToDTO(savedContact);
+        onContactSaved(savedDTO, false);
+        return savedDTO;
     }
 
     @Override
-    public ContactDTO updateContact(Long id, ContactRequestDTO contactRequest) {
-        Contact contact = contactRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Contact not found with id: " + id));
+    public BatchCreateResultDTO createContacts(List<ContactRequestDTO> contactRequests) {
+        BatchCreateResultDTO result = new BatchCreateResultDTO();
+        List<ContactRequestDTO> batch = new ArrayList<>();
+        List<Integer> indexes = new ArrayList<>();
+
+        for (int i = 0; i < contactRequests.size(); i++) {
+            ContactRequestDTO request = contactRequests.get(i);
+            String error = validateRequest(request);
+            if (error != null) {
+                result.getErrors().add(new BatchItemErrorDTO(i, error));
+                continue;
+            }
+
+            batch.add(request);
+            indexes.add(i);
+            if (batch.size() >= importBatchSize) {
+                saveCreateBatch(batch, indexes, result);
+                batch.clear();
+                indexes.clear();
+            }
+        }
+        saveCreateBatch(batch, indexes, result);
 
+        return result;
+    }
+
+    @Override
+    public ContactDTO updateContact(Long id, ContactRequestDTO contactRequest) {
         // Validate request
         if (contactRequest.getPhones() == null || contactRequest.getPhones().isEmpty()) {
             throw new RuntimeException("At least one phone number is required");
         }
 
-        updateContactFromRequest(contact, contactRequest);
+        // The setters diff the lazy collections in place, so load, apply and flush in one
+        // transaction
+        boolean[] wasFavorite = new boolean[1];
+        ContactDTO updatedDTO = transactionTemplate.execute(status -> {
+            Contact contact = contactRepository.findById(id)
+                    .orElseThrow(() -> new RuntimeException("Contact not found with id: " + id));
+            wasFavorite[0] = Boolean.TRUE.equals(contact.getIsFavorite());
+            updateContactFromRequest(contact, contactRequest);
+            entityManager.flush();
+            return convertToDTO(contact);
+        });
 
-        Contact updatedContact = contactRepository.save(contact);
-        return convertToDTO(updatedContact);
+        onContactSaved(updatedDTO, wasFavorite[0]);
+        return updatedDTO;
+    }
+
+    @Override
+    public ContactDTO patchContact(Long id, JsonNode patch) {
+        if (patch == null || !patch.isObject()) {
+            throw new IllegalArgumentException("Merge patch must be a JSON object");
+        }
+
+        boolean[] wasFavorite = new boolean[1];
+        ContactDTO patchedDTO = transactionTemplate.execute(status -> {
+            Contact contact = contactRepository.findById(id)
+                    .orElseThrow(() -> new RuntimeException("Contact not found with id: " + id));
+            wasFavorite[0] = Boolean.TRUE.equals(contact.getIsFavorite());
+
+            // Fields absent from the patch keep their current value, null clears them
+            ContactRequestDTO request = toContactRequest(contact);
+            try {
+                objectMapper.readerForUpdating(request).readValue(patch);
+            } catch (IOException e) {
+                throw new IllegalArgumentException("Invalid merge patch: " + e.getMessage(), e);
+            }
+            if (request.getIsFavorite() == null) {
+                request.setIsFavorite(false);
+            }
+            String error = validateRequest(request);
+            if (error != null) {
+                throw new IllegalArgumentException(error);
+            }
+
+            // Setters diff the collections in place, unchanged values write nothing
+            updateContactFromRequest(contact, request);
+            entityManager.flush();
+            return convertToDTO(contact);
+        });
+
+        onContactSaved(patchedDTO, wasFavorite[0]);
+        return patchedDTO;
     }
 
     @Override
@@ -72,69 +369,618 @@ public class ContactServiceImpl implements ContactService {
         if (!contactRepository.existsById(id)) {
             throw new RuntimeException("Contact not found with id: " + id);
         }
-        contactRepository.deleteById(id);
+        // Leave a tombstone in the same transaction so delta sync can report the delete
+        transactionTemplate.executeWithoutResult(status -> {
+            contactRepository.deleteById(id);
+            deletionRepository.save(new ContactDeletion(id, new Date()));
+        });
+        onContactDeleted(id);
+    }
+
+    @Override
+    public int deleteAllContacts() {
+        int deleted = 0;
+        while (true) {
+            // Always take the lowest IDs, the previous batch is gone by now
+            List<Long> ids = contactRepository.findIdsAfter(
+                    0L, null, PageRequest.of(0, MAX_PAGE_SIZE));
+            if (ids.isEmpty()) {
+                return deleted;
+            }
+            transactionTemplate.executeWithoutResult(status -> {
+                contactRepository.deleteAllById(ids);
+                Date now = new Date();
+                for (Long id : ids) {
+                    deletionRepository.save(new ContactDeletion(id, now));
+                }
+            });
+            for (Long id : ids) {
+                onContactDeleted(id);
+            }
+            deleted += ids.size();
+        }
+    }
+
+    @Override
+    public ContactDTO mergeContacts(Long survivorId, List<Long> duplicateIds) {
+        Set<Long> duplicates = new LinkedHashSet<>(duplicateIds);
+        if (duplicates.isEmpty()) {
+            throw new IllegalArgumentException("At least one duplicate ID is required");
+        }
+        if (duplicates.contains(survivorId)) {
+            throw new IllegalArgumentException("Survivor cannot also be a duplicate");
+        }
+
+        boolean[] wasFavorite = new boolean[1];
+        ContactDTO mergedDTO = transactionTemplate.execute(status -> {
+            Contact survivor = contactRepository.findById(survivorId)
+                    .orElseThrow(() ->
+                            new RuntimeException("Contact not found with id: " + survivorId));
+            List<Contact> others = contactRepository.findAllById(duplicates);
+            if (others.size() != duplicates.size()) {
+                throw new IllegalArgumentException("Some duplicate contacts do not exist");
+            }
+            others.sort(Comparator.comparing(Contact::getId));
+            wasFavorite[0] = Boolean.TRUE.equals(survivor.getIsFavorite());
+
+            ContactRequestDTO request = toContactRequest(survivor);
+            Set<String> phoneKeys = new HashSet<>();
+            request.getPhones().forEach(phone -> phoneKeys.add(PhoneNumber.normalize(phone)));
+            Set<String> emailKeys = new HashSet<>();
+            request.getEmails().forEach(email -> emailKeys.add(email.toLowerCase(Locale.ROOT)));
+            Set<String> tags = new LinkedHashSet<>(request.getTags());
+            List<String> notes = new ArrayList<>();
+            if (request.getNotes() != null && !request.getNotes().trim().isEmpty()) {
+                notes.add(request.getNotes().trim());
+            }
+
+            for (Contact other : others) {
+                // Same number in another format or same address in another case counts once
+                for (String phone : other.getPhones()) {
+                    if (phoneKeys.add(PhoneNumber.normalize(phone))) {
+                        request.getPhones().add(phone);
+                    }
+                }
+                for (String email : other.getEmails()) {
+                    if (emailKeys.add(email.toLowerCase(Locale.ROOT))) {
+                        request.getEmails().add(email);
+                    }
+                }
+                tags.addAll(other.getTags());
+                if (other.getNotes() != null && !other.getNotes().trim().isEmpty()
+                        && !notes.contains(other.getNotes().trim())) {
+                    notes.add(other.getNotes().trim());
+                }
+                if (request.getAddress() == null || request.getAddress().trim().isEmpty()) {
+                    request.setAddress(other.getAddress());
+                }
+                if (Boolean.TRUE.equals(other.getIsFavorite())) {
+                    request.setIsFavorite(true);
+                }
+            }
+            request.setTags(new ArrayList<>(tags));
+            String mergedNotes = String.join("\n", notes);
+            request.setNotes(mergedNotes.isEmpty() ? null
+                    : mergedNotes.substring(0, Math.min(mergedNotes.length(), MAX_NOTES_LENGTH)));
+
+            updateContactFromRequest(survivor, request);
+            // Tombstones let delta sync clients drop the merged-away contacts
+            Date now = new Date();
+            for (Contact other : others) {
+                contactRepository.delete(other);
+                deletionRepository.save(new ContactDeletion(other.getId(), now));
+            }
+            entityManager.flush();
+            return convertToDTO(survivor);
+        });
+
+        for (Long id : duplicates) {
+            onContactDeleted(id);
+        }
+        onContactSaved(mergedDTO, wasFavorite[0]);
+        return mergedDTO;
     }
 
     @Override
     public List<ContactDTO> getFavoriteContacts() {
-        return contactRepository.findByIsFavoriteTrue().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return contactCache.getFavorites(
+                () -> convertToDTOs(contactRepository.findByIsFavoriteTrueOrderByIdAsc()));
+    }
+
+    @Override
+    public ContactChangesDTO getChangesSince(String since, int limit) {
+        int pageSize = limit <= 0 ? DEFAULT_PAGE_SIZE : Math.min(limit, MAX_PAGE_SIZE);
+        long now = System.currentTimeMillis();
+        // Rows of a write still in flight carry a timestamp no earlier than its start, so stop
+        // before the oldest open write however long it runs; a later call picks its rows up
+        Date until = new Date(transactionManager.oldestOpenWriteStart(now - SYNC_SETTLE_MILLIS));
+
+        long modifiedCursor = 0L;
+        long contactCursor = 0L;
+        long deletedAtCursor;
+        long deletionCursor = 0L;
+        if (since == null || since.trim().isEmpty()) {
+            // Full sync: every contact, and no tombstones from before the client existed
+            deletedAtCursor = until.getTime();
+        } else {
+            long[] token = parseSyncToken(since);
+            if (token[0] < now - TimeUnit.DAYS.toMillis(tombstoneRetentionDays)) {
+                throw new SyncTokenExpiredException(
+                        "Sync token is older than the tombstone retention, resync required");
+            }
+            modifiedCursor = token[1];
+            contactCursor = token[2];
+            deletedAtCursor = token[3];
+            deletionCursor = token[4];
+        }
+
+        ContactChangesDTO changes = new ContactChangesDTO();
+
+        List<Contact> changed = contactRepository.findChangedSince(
+                new Date(modifiedCursor), contactCursor, until, PageRequest.of(0, pageSize + 1));
+        if (changed.size() > pageSize) {
+            changed = changed.subList(0, pageSize);
+            changes.setHasMore(true);
+        }
+        if (!changed.isEmpty()) {
+            Contact last = changed.get(changed.size() - 1);
+            modifiedCursor = last.getLastModified().getTime();
+            contactCursor = last.getId();
+        }
+        changes.setChanged(convertToDTOs(changed));
+
+        List<ContactDeletion> deleted = deletionRepository.findDeletedAfter(
+                new Date(deletedAtCursor), deletionCursor, until, PageRequest.of(0, pageSize + 1));
+        if (deleted.size() > pageSize) {
+            deleted = deleted.subList(0, pageSize);
+            changes.setHasMore(true);
+        }
+        for (ContactDeletion deletion : deleted) {
+            changes.getDeleted().add(deletion.getContactId());
+            deletedAtCursor = deletion.getDeletedAt().getTime();
+            deletionCursor = deletion.getId();
+        }
+
+        changes.setNextToken(until.getTime() + "-" + modifiedCursor + "-" + contactCursor
+                + "-" + deletedAtCursor + "-" + deletionCursor);
+        return changes;
+    }
+
+    // Token layout: issuedAt-lastModified-contactId-deletedAt-deletionId
+    private long[] parseSyncToken(String token) {
+        String[] parts = token.trim().split("-");
+        if (parts.length == 4) {
+            // Tokens from before the deletion time was part of the cursor
+            throw new SyncTokenExpiredException("Sync token format is outdated, resync required");
+        }
+        if (parts.length != 5) {
+            throw new IllegalArgumentException("Invalid sync token: " + token);
+        }
+        long[] values = new long[5];
+        try {
+            for (int i = 0; i < parts.length; i++) {
+                values[i] = Long.parseLong(parts[i]);
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid sync token: " + token);
+        }
+        return values;
+    }
+
+    // Compact the deletion log, tokens older than the retention get SyncTokenExpiredException
+    @Scheduled(fixedDelayString = "${contacts.sync.compaction-interval-ms:3600000}")
+    public void compactDeletionLog() {
+        Date cutoff = new Date(System.currentTimeMillis()
+                - TimeUnit.DAYS.toMillis(tombstoneRetentionDays));
+        int removed = deletionRepository.deleteOlderThan(cutoff);
+        if (removed > 0) {
+            log.info("Compacted {} contact tombstones", removed);
+        }
+    }
+
+    @Override
+    public String getCollectionETag() {
+        return weakETag(versionTracker.currentTag());
+    }
+
+    @Override
+    public String getContactETag(Long id) {
+        // A cached DTO already carries the timestamp, otherwise read just that column
+        ContactDTO cached = contactCache.peekContact(id);
+        Date lastModified = cached != null
+                ? cached.getLastModified()
+                : contactRepository.findLastModifiedById(id).orElse(null);
+        return lastModified != null ? weakETag(id + "-" + lastModified.getTime()) : null;
+    }
+
+    // Weak, Tomcat does not gzip responses carrying a strong ETag
+    private static String weakETag(String tag) {
+        return "W/\"" + tag + "\"";
+    }
+
+    @Override
+    public List<CacheStatsDTO> getCacheStats() {
+        return contactCache.stats();
     }
 
     @Override
     public ContactDTO toggleFavorite(Long id) {
-        Contact contact = contactRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Contact not found with id: " + id));
+        ContactDTO cached = contactCache.peekContact(id);
+        if (cached == null) {
+            return toggleUncachedFavorite(id);
+        }
+
+        // The cached flag says which way to flip, so the UPDATE is the only statement; it
+        // matches nothing when the row changed since, and the read-back path takes over
+        boolean favorite = !Boolean.TRUE.equals(cached.getIsFavorite());
+        Date[] modified = new Date[1];
+        Integer updated = transactionTemplate.execute(status -> {
+            modified[0] = new Date();
+            return contactRepository.setFavoriteIfChanged(id, favorite, modified[0]);
+        });
+        if (updated == null || updated == 0) {
+            return toggleUncachedFavorite(id);
+        }
+
+        // Flip the flag in the caches and the tag index instead of evicting and reloading
+        versionTracker.bump();
+        List<Long> ids = Collections.singletonList(id);
+        updateIndexes(ids, () -> tagIndex.setFavorite(ids, favorite));
+        ContactDTO toggled = withFavorite(cached, favorite, modified[0]);
+        contactCache.updateContact(id, contact -> withFavorite(contact, favorite, modified[0]));
+        contactCache.updateFavorites(favorites -> withFavoriteListed(favorites, toggled));
+        return toggled;
+    }
+
+    // One UPDATE and a read of the new flag in the same transaction, stamped inside it as delta
+    // sync relies on that
+    private ContactDTO toggleUncachedFavorite(Long id) {
+        Date[] modified = new Date[1];
+        Boolean toggled = transactionTemplate.execute(status -> {
+            modified[0] = new Date();
+            if (contactRepository.toggleFavoriteById(id, modified[0]) == 0) {
+                return null;
+            }
+            return contactRepository.findFavoriteById(id).orElse(null);
+        });
+        if (toggled == null) {
+            throw new RuntimeException("Contact not found with id: " + id);
+        }
+        boolean favorite = toggled;
+
+        // The response is the cached DTO with the new flag, the contact is only loaded on a miss
+        ContactDTO cached = contactCache.peekContact(id);
+        List<Long> ids = Collections.singletonList(id);
+        onFavoritesChanged(ids);
+        updateIndexes(ids, () -> tagIndex.setFavorite(ids, favorite));
+        if (cached == null) {
+            return getContactById(id);
+        }
+        return withFavorite(cached, favorite, modified[0]);
+    }
+
+    @Override
+    public BulkUpdateResultDTO updateFavorites(List<Long> ids, boolean favorite) {
+        List<Long> distinctIds = ids.stream()
+                .distinct()
+                .collect(Collectors.toList());
+
+        // One statement per COLLECTION_BATCH_SIZE IDs, all in one transaction
+        Integer updated = transactionTemplate.execute(status -> {
+            Date now = new Date();
+            int count = 0;
+            for (int from = 0; from < distinctIds.size(); from += COLLECTION_BATCH_SIZE) {
+                List<Long> chunk = distinctIds.subList(
+                        from, Math.min(from + COLLECTION_BATCH_SIZE, distinctIds.size()));
+                count += contactRepository.updateFavoriteByIds(chunk, favorite, now);
+            }
+            return count;
+        });
+
+        onFavoritesChanged(distinctIds);
+        updateIndexes(distinctIds, () -> tagIndex.setFavorite(distinctIds, favorite));
+        return new BulkUpdateResultDTO(updated != null ? updated : 0);
+    }
 
-        contact.toggleFavorite();
-        Contact updatedContact = contactRepository.save(contact);
+    @Override
+    public List<ContactDTO> findContactsByPhone(String number) {
+        String normalized = PhoneNumber.normalize(number);
+        if (normalized.isEmpty()) {
+            return new ArrayList<>();
+        }
 
-        return convertToDTO(updatedContact);
+        // Exact match first, the trailing digits only when that finds nothing
+        List<Long> ids = contactRepository.findIdsByNormalizedPhone(normalized);
+        if (ids.isEmpty()) {
+            ids = findIdsByPhoneSuffix(normalized);
+        }
+
+        List<ContactDTO> contacts = new ArrayList<>();
+        for (Long id : ids) {
+            contacts.add(getContactById(id));
+        }
+        return contacts;
     }
 
     @Override
-    public List<ContactDTO> searchContacts(String keyword) {
+    public Map<String, List<ContactDTO>> findContactsByPhones(List<String> numbers) {
+        if (numbers.size() > MAX_PHONE_LOOKUP_BATCH) {
+            throw new IllegalArgumentException(
+                    "At most " + MAX_PHONE_LOOKUP_BATCH + " numbers can be resolved at once");
+        }
+
+        List<String> normalizedNumbers = numbers.stream()
+                .map(PhoneNumber::normalize)
+                .filter(normalized -> !normalized.isEmpty())
+                .distinct()
+                .collect(Collectors.toList());
+
+        // Exact matches for all numbers with one IN query per COLLECTION_BATCH_SIZE numbers
+        Map<String, List<Long>> idsByNumber = new HashMap<>();
+        for (int from = 0; from < normalizedNumbers.size(); from += COLLECTION_BATCH_SIZE) {
+            List<String> chunk = normalizedNumbers.subList(
+                    from, Math.min(from + COLLECTION_BATCH_SIZE, normalizedNumbers.size()));
+            for (Object[] row : contactRepository.findIdsByNormalizedPhones(chunk)) {
+                idsByNumber.computeIfAbsent((String) row[1], n -> new ArrayList<>())
+                        .add((Long) row[0]);
+            }
+        }
+        // Suffix lookups only for the numbers left unresolved
+        for (String normalized : normalizedNumbers) {
+            if (!idsByNumber.containsKey(normalized)) {
+                idsByNumber.put(normalized, findIdsByPhoneSuffix(normalized));
+            }
+        }
+
+        List<Long> matchedIds = idsByNumber.values().stream()
+                .flatMap(List::stream)
+                .distinct()
+                .collect(Collectors.toList());
+        Map<Long, ContactDTO> contactsById = new HashMap<>();
+        for (int from = 0; from < matchedIds.size(); from += COLLECTION_BATCH_SIZE) {
+            List<Long> chunk = matchedIds.subList(
+                    from, Math.min(from + COLLECTION_BATCH_SIZE, matchedIds.size()));
+            for (ContactDTO contact : convertToDTOs(contactRepository.findAllById(chunk))) {
+                contactsById.put(contact.getId(), contact);
+            }
+        }
+
+        // Keyed by the numbers as given, in request order
+        Map<String, List<ContactDTO>> results = new LinkedHashMap<>();
+        for (String number : numbers) {
+            List<Long> ids = idsByNumber.getOrDefault(
+                    PhoneNumber.normalize(number), Collections.emptyList());
+            List<ContactDTO> contacts = ids.stream()
+                    .sorted()
+                    .map(contactsById::get)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toList());
+            results.put(number, contacts);
+        }
+        return results;
+    }
+
+    // Compare the trailing digits, which skips country codes and trunk prefixes
+    private List<Long> findIdsByPhoneSuffix(String normalized) {
+        if (normalized.length() < MIN_PHONE_SUFFIX_DIGITS) {
+            return new ArrayList<>();
+        }
+        String suffix = normalized.substring(
+                Math.max(0, normalized.length() - PHONE_SUFFIX_DIGITS));
+        return contactRepository.findIdsByReversedPhonePrefix(
+                new StringBuilder(suffix).reverse().toString());
+    }
+
+    @Override
+    public ContactStatsDTO getStatistics() {
+        return new ContactStatsDTO(
+                contactRepository.count(),
+                contactRepository.countByIsFavoriteTrue(),
+                contactRepository.countPhones(),
+                contactRepository.countEmails());
+    }
+
+    @Override
+    public List<TagCountDTO> getTagCounts() {
+        if (tagIndex.isReady()) {
+            return tagIndex.getCounts();
+        }
+
+        // Counts are still being built after a restart, aggregate in the database meanwhile
+        Map<String, long[]> counts = new TreeMap<>();
+        for (Object[] row : contactRepository.countContactsByTagAndFavorite()) {
+            long[] count = counts.computeIfAbsent((String) row[0], tag -> new long[2]);
+            count[Boolean.TRUE.equals(row[1]) ? 1 : 0] += (Long) row[2];
+        }
+        List<TagCountDTO> result = new ArrayList<>();
+        for (Map.Entry<String, long[]> entry : counts.entrySet()) {
+            result.add(new TagCountDTO(entry.getKey(), entry.getValue()[1], entry.getValue()[0]));
+        }
+        result.sort(Comparator.comparingLong(TagCountDTO::getCount).reversed());
+        return result;
+    }
+
+    @Override
+    public ContactPageDTO filterContacts(
+            List<String> tags, boolean matchAll, Boolean favorite, Long after, int limit) {
+        int pageSize = limit <= 0 ? DEFAULT_PAGE_SIZE : Math.min(limit, MAX_PAGE_SIZE);
+        List<String> distinctTags = tags == null ? new ArrayList<>() : tags.stream()
+                .map(String::trim)
+                .filter(tag -> !tag.isEmpty())
+                .distinct()
+                .collect(Collectors.toList());
+
+        // One extra ID tells whether another page follows
+        List<Long> ids;
+        if (tagIndex.isReady()) {
+            // Bitmap AND/OR picks the IDs, only the returned page is loaded from the database
+            ids = tagIndex.filter(distinctTags, matchAll, favorite, after, pageSize + 1);
+        } else if (distinctTags.isEmpty()) {
+            ids = contactRepository.findIdsAfter(
+                    after != null ? after : 0L, favorite, PageRequest.of(0, pageSize + 1));
+        } else {
+            ids = contactRepository.findIdsByTags(distinctTags, after != null ? after : 0L,
+                    favorite, matchAll ? distinctTags.size() : 1, PageRequest.of(0, pageSize + 1));
+        }
+
+        Long next = null;
+        if (ids.size() > pageSize) {
+            ids = ids.subList(0, pageSize);
+            next = ids.get(pageSize - 1);
+        }
+        return new ContactPageDTO(convertToDTOs(findAllInOrder(ids)), next, pageSize);
+    }
+
+    @Override
+    public ContactPageDTO searchContacts(String keyword, Long after, int limit) {
         if (keyword == null || keyword.trim().isEmpty()) {
-            return getAllContacts();
+            return getContactsPage(after, limit);
         }
 
+        int pageSize = limit <= 0 ? DEFAULT_PAGE_SIZE : Math.min(limit, MAX_PAGE_SIZE);
+        long cursor = after != null ? after : 0L;
         String searchTerm = keyword.toLowerCase().trim();
+        // Match name, phones, emails and tags against the n-gram index, the database is only hit
+        // to load the matched rows; one extra ID tells whether another page follows
+        List<Long> ids = searchIndex.isReady()
+                ? searchIndex.search(searchTerm, cursor, pageSize + 1)
+                : searchIdsInDatabase(searchTerm, cursor, pageSize + 1);
+
+        Long next = null;
+        if (ids.size() > pageSize) {
+            ids = ids.subList(0, pageSize);
+            next = ids.get(pageSize - 1);
+        }
+        return new ContactPageDTO(convertToDTOs(findAllInOrder(ids)), next, pageSize);
+    }
+
+    // Load contacts by ID keeping the order of the IDs, IDs deleted in the meantime are skipped
+    private List<Contact> findAllInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, Contact> matched = new HashMap<>();
+        for (Contact contact : contactRepository.findAllById(ids)) {
+            matched.put(contact.getId(), contact);
+        }
         List<Contact> results = new ArrayList<>();
+        for (Long id : ids) {
+            Contact contact = matched.get(id);
+            if (contact != null) {
+                results.add(contact);
+            }
+        }
+        return results;
+    }
 
-        // Search by name
-        results.addAll(contactRepository.findByNameContainingIgnoreCase(searchTerm));
+    // LIKE queries against the tables, used while the index is still being built after a restart.
+    // Each query returns its first IDs after the cursor, so the merged first IDs are exact
+    private List<Long> searchIdsInDatabase(String searchTerm, long after, int limit) {
+        PageRequest firstIds = PageRequest.of(0, limit);
+        Set<Long> matched = new TreeSet<>();
+        matched.addAll(contactRepository.findIdsByNameContaining(searchTerm, after, firstIds));
+        matched.addAll(
+                contactRepository.findIdsByPhoneNumberContaining(searchTerm, after, firstIds));
+        matched.addAll(contactRepository.findIdsByEmailContaining(searchTerm, after, firstIds));
+        matched.addAll(contactRepository.findIdsByTagContaining(searchTerm, after, firstIds));
+        return matched.stream()
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
 
-        // Search by phone
-        results.addAll(contactRepository.findByPhoneNumberContaining(searchTerm));
+    // Build the search index and tag counts once the application (and seeding) is ready; with a
+    // large persistent store this runs in the background so startup does not wait for it
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!asyncIndexRebuild) {
+            rebuildSearchIndex();
+            return;
+        }
+        Thread rebuild = new Thread(this::rebuildSearchIndex, "search-index-rebuild");
+        rebuild.setDaemon(true);
+        rebuild.start();
+    }
 
-        // Search by email
-        results.addAll(contactRepository.findByEmailContaining(searchTerm));
+    // Builds fresh indexes while writes keep going to the live ones, catches up on the contacts
+    // written in the meantime and then swaps the fresh indexes in
+    public synchronized void rebuildSearchIndex() {
+        Set<Long> written = ConcurrentHashMap.newKeySet();
+        rebuildWrittenIds = written;
+        ContactSearchIndex freshSearchIndex = new ContactSearchIndex();
+        ContactTagIndex freshTagIndex = new ContactTagIndex();
+        Long after = null;
+        do {
+            ContactPageDTO page = getContactsPage(after, MAX_PAGE_SIZE);
+            for (ContactDTO contact : page.getContacts()) {
+                freshSearchIndex.index(contact);
+                freshTagIndex.index(contact);
+            }
+            after = page.getNext();
+        } while (after != null);
 
-        // Search by tag
-        results.addAll(contactRepository.findByTagContaining(searchTerm));
+        // First catch-up without blocking writers, so the one under the lock has little left to do
+        reindex(drain(written), freshSearchIndex, freshTagIndex);
+        synchronized (indexLock) {
+            reindex(drain(written), freshSearchIndex, freshTagIndex);
+            searchIndex.replaceWith(freshSearchIndex);
+            tagIndex.replaceWith(freshTagIndex);
+            rebuildWrittenIds = null;
+        }
+        searchIndex.markReady();
+        tagIndex.markReady();
+        log.info("Search index built for {} contacts", searchIndex.size());
+    }
 
-        // Remove duplicates (by ID)
-        return results.stream()
-                .distinct()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    private static Set<Long> drain(Set<Long> ids) {
+        Set<Long> drained = new HashSet<>(ids);
+        ids.removeAll(drained);
+        return drained;
+    }
+
+    // Re-read the contacts from the database into the indexes, IDs no longer there are removed
+    private void reindex(Set<Long> ids, ContactSearchIndex targetSearch,
+            ContactTagIndex targetTags) {
+        List<Long> idList = new ArrayList<>(ids);
+        for (int from = 0; from < idList.size(); from += COLLECTION_BATCH_SIZE) {
+            int to = Math.min(from + COLLECTION_BATCH_SIZE, idList.size());
+            List<Long> chunk = idList.subList(from, to);
+            Set<Long> missing = new HashSet<>(chunk);
+            for (ContactDTO contact : convertToDTOs(findAllInOrder(chunk))) {
+                targetSearch.index(contact);
+                targetTags.index(contact);
+                missing.remove(contact.getId());
+            }
+            for (Long id : missing) {
+                targetSearch.remove(id);
+                targetTags.remove(id);
+            }
+        }
     }
 
     @Override
     public byte[] exportContactsToExcel() {
-        List<Contact> contacts = contactRepository.findAll();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        exportContactsToExcel(outputStream);
+        return outputStream.toByteArray();
+    }
+
+    @Override
+    public void exportContactsToExcel(OutputStream outputStream) {
+        exportContactsToExcel(outputStream, null);
+    }
 
-        try (Workbook workbook = new XSSFWorkbook()) {
+    @Override
+    public void exportContactsToExcel(OutputStream outputStream, ExportProgressListener listener) {
+        // Only EXCEL_ROW_WINDOW rows stay in memory, older rows are flushed to a temp file
+        SXSSFWorkbook workbook = new SXSSFWorkbook(EXCEL_ROW_WINDOW);
+        workbook.setCompressTempFiles(true);
+
+        try {
             Sheet sheet = workbook.createSheet("Contacts");
 
             // Create header row
             Row headerRow = sheet.createRow(0);
-            String[] headers = {
-                    "ID", "Name", "Favorite", "Primary Phone", "Additional Phones",
-                    "Primary Email", "Additional Emails", "Address", "Tags", "Notes",
-                    "Created Date", "Last Modified"
-            };
+            String[] headers = EXCEL_HEADERS;
 
             CellStyle headerStyle = workbook.createCellStyle();
             Font headerFont = workbook.createFont();
@@ -145,192 +991,697 @@ public class ContactServiceImpl implements ContactService {
                 Cell cell = headerRow.createCell(i);
                 cell.setCellValue(headers[i]);
                 cell.setCellStyle(headerStyle);
+                // Fixed widths: auto-sizing needs every row in memory
+                sheet.setColumnWidth(i, EXCEL_COLUMN_WIDTHS[i] * 256);
             }
 
-            // Create data rows
+            // Create data rows, reading the contacts page by page
             int rowNum = 1;
-            for (Contact contact : contacts) {
-                Row row = sheet.createRow(rowNum++);
+            Long after = null;
+            do {
+                ContactPageDTO page = getContactsPage(after, MAX_PAGE_SIZE);
+                for (ContactDTO contact : page.getContacts()) {
+                    writeExcelRow(sheet.createRow(rowNum++), contact);
+                }
+                recordExported("excel", page.getContacts().size());
+                if (listener != null) {
+                    listener.onProgress(rowNum - 1);
+                }
+                after = page.getNext();
+            } while (after != null);
 
-                row.createCell(0).setCellValue(contact.getId());
-                row.createCell(1).setCellValue(contact.getName());
-                row.createCell(2).setCellValue(contact.getIsFavorite() ? "Yes" : "No");
-                row.createCell(3).setCellValue(contact.getPrimaryPhone() != null ? contact.getPrimaryPhone() : "");
+            workbook.write(outputStream);
+            outputStream.flush();
 
-                // Additional phones
-                String additionalPhones = contact.getPhones().stream()
-                        .skip(1)
-                        .collect(Collectors.joining("; "));
-                row.createCell(4).setCellValue(additionalPhones);
+        } catch (IOException e) {
+            throw new RuntimeException("Error exporting to Excel: " + e.getMessage(), e);
+        } finally {
+            // Remove the temp files backing the flushed rows
+            workbook.dispose();
+        }
+    }
 
-                // Emails
-                row.createCell(5).setCellValue(contact.getPrimaryEmail() != null ? contact.getPrimaryEmail() : "");
+    private void writeExcelRow(Row row, ContactDTO contact) {
+        row.createCell(0).setCellValue(contact.getId());
+        row.createCell(1).setCellValue(contact.getName());
+        row.createCell(2).setCellValue(contact.getIsFavorite() ? "Yes" : "No");
+        row.createCell(3).setCellValue(
+                !contact.getPhones().isEmpty() ? contact.getPhones().get(0) : "");
 
-                String additionalEmails = contact.getEmails().stream()
-                        .skip(1)
-                        .collect(Collectors.joining("; "));
-                row.createCell(6).setCellValue(additionalEmails);
+        // Additional phones
+        String additionalPhones = contact.getPhones().stream()
+                .skip(1)
+                .collect(Collectors.joining("; "));
+        row.createCell(4).setCellValue(additionalPhones);
 
-                row.createCell(7).setCellValue(contact.getAddress() != null ? contact.getAddress() : "");
-                row.createCell(8).setCellValue(String.join(", ", contact.getTags()));
-                row.createCell(9).setCellValue(contact.getNotes() != null ? contact.getNotes() : "");
-                row.createCell(10).setCellValue(contact.getCreatedAt().toString());
-                row.createCell(11).setCellValue(contact.getLastModified().toString());
-            }
+        // Emails
+        row.createCell(5).setCellValue(
+                !contact.getEmails().isEmpty() ? contact.getEmails().get(0) : "");
 
-            // Auto-size columns
-            for (int i = 0; i < headers.length; i++) {
-                sheet.autoSizeColumn(i);
-            }
+        String additionalEmails = contact.getEmails().stream()
+                .skip(1)
+                .collect(Collectors.joining("; "));
+        row.createCell(6).setCellValue(additionalEmails);
 
-            // Write to byte array
-            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-            workbook.write(outputStream);
-            return outputStream.toByteArray();
+        row.createCell(7).setCellValue(contact.getAddress() != null ? contact.getAddress() : "");
+        row.createCell(8).setCellValue(String.join(", ", contact.getTags()));
+        row.createCell(9).setCellValue(contact.getNotes() != null ? contact.getNotes() : "");
+        row.createCell(10).setCellValue(contact.getCreatedAt().toString());
+        row.createCell(11).setCellValue(contact.getLastModified().toString());
+    }
+
+    @Override
+    public ImportSummaryDTO importContactsFromExcel(MultipartFile file) {
+        ContactImportBatcher batcher = new ContactImportBatcher("excel");
 
+        try {
+            if (isLegacyExcel(file.getOriginalFilename())) {
+                try (InputStream inputStream = file.getInputStream()) {
+                    importLegacyExcel(inputStream, batcher);
+                }
+            } else {
+                // Open the package from a file so the zip is not buffered in memory
+                File tempFile = File.createTempFile("contacts-import-", ".xlsx");
+                try {
+                    file.transferTo(tempFile);
+                    importStreamingExcel(tempFile, batcher);
+                } finally {
+                    Files.deleteIfExists(tempFile.toPath());
+                }
+            }
         } catch (IOException e) {
-            throw new RuntimeException("Error exporting to Excel: " + e.getMessage(), e);
+            throw new RuntimeException("Error importing Excel file: " + e.getMessage(), e);
         }
+
+        return batcher.finish();
     }
 
     @Override
-    public List<ContactDTO> importContactsFromExcel(MultipartFile file) {
-        try (Workbook workbook = WorkbookFactory.create(file.getInputStream())) {
-            Sheet sheet = workbook.getSheetAt(0);
-            Iterator<Row> rowIterator = sheet.iterator();
+    public ImportSummaryDTO importContactsFromExcel(
+            File file, String filename, ImportProgressListener listener) {
+        ContactImportBatcher batcher = new ContactImportBatcher("excel", listener);
+
+        try {
+            if (isLegacyExcel(filename)) {
+                try (InputStream inputStream = Files.newInputStream(file.toPath())) {
+                    importLegacyExcel(inputStream, batcher);
+                }
+            } else {
+                importStreamingExcel(file, batcher);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Error importing Excel file: " + e.getMessage(), e);
+        }
+
+        return batcher.finish();
+    }
 
-            List<ContactDTO> importedContacts = new ArrayList<>();
+    private boolean isLegacyExcel(String filename) {
+        return filename != null && filename.toLowerCase().endsWith(".xls");
+    }
 
+    // .xlsx: parse the sheet XML with SAX events, one row at a time
+    private void importStreamingExcel(File file, ContactImportBatcher batcher) throws IOException {
+        new ExcelContactReader(EXCEL_HEADERS.length).read(file, (rowNumber, cells) -> {
             // Skip header row
-            if (rowIterator.hasNext()) {
-                rowIterator.next();
+            if (rowNumber > 0) {
+                batcher.add(rowNumber + 1, toContactRequest(cells));
+            }
+        });
+    }
+
+    // Legacy .xls has no SAX format, read it through the workbook API
+    private void importLegacyExcel(InputStream inputStream, ContactImportBatcher batcher)
+            throws IOException {
+        try (Workbook workbook = WorkbookFactory.create(inputStream)) {
+            Sheet sheet = workbook.getSheetAt(0);
+            for (Row row : sheet) {
+                // Skip header row
+                if (row.getRowNum() == 0) {
+                    continue;
+                }
+                String[] cells = new String[EXCEL_HEADERS.length];
+                for (int i = 0; i < cells.length; i++) {
+                    cells[i] = getCellValue(row.getCell(i));
+                }
+                batcher.add(row.getRowNum() + 1, toContactRequest(cells));
             }
+        }
+    }
 
-            while (rowIterator.hasNext()) {
-                Row row = rowIterator.next();
+    // Build a contact request from the cells of an exported row, null when the row is invalid
+    private ContactRequestDTO toContactRequest(String[] cells) {
+        String name = cells[1];
+        String favoriteStr = cells[2];
+        String primaryPhone = cells[3];
+        String additionalPhones = cells[4];
+        String primaryEmail = cells[5];
+        String additionalEmails = cells[6];
+        String address = cells[7];
+        String tagsStr = cells[8];
+        String notes = cells[9];
+
+        // Validate required fields
+        if (name == null || name.trim().isEmpty()
+                || primaryPhone == null || primaryPhone.trim().isEmpty()) {
+            return null;
+        }
+
+        // Prepare phone list
+        List<String> phones = new ArrayList<>();
+        phones.add(primaryPhone.trim());
+        if (additionalPhones != null && !additionalPhones.trim().isEmpty()) {
+            String[] additionalPhonesArray = additionalPhones.split(";");
+            for (String phone : additionalPhonesArray) {
+                if (!phone.trim().isEmpty()) {
+                    phones.add(phone.trim());
+                }
+            }
+        }
+
+        // Prepare email list
+        List<String> emails = new ArrayList<>();
+        if (primaryEmail != null && !primaryEmail.trim().isEmpty()) {
+            emails.add(primaryEmail.trim());
+        }
+        if (additionalEmails != null && !additionalEmails.trim().isEmpty()) {
+            String[] additionalEmailsArray = additionalEmails.split(";");
+            for (String email : additionalEmailsArray) {
+                if (!email.trim().isEmpty()) {
+                    emails.add(email.trim());
+                }
+            }
+        }
+
+        // Prepare tags list
+        List<String> tags = new ArrayList<>();
+        if (tagsStr != null && !tagsStr.trim().isEmpty()) {
+            String[] tagsArray = tagsStr.split(",");
+            for (String tag : tagsArray) {
+                if (!tag.trim().isEmpty()) {
+                    tags.add(tag.trim());
+                }
+            }
+        }
+
+        ContactRequestDTO contactRequest = new ContactRequestDTO();
+        contactRequest.setName(name.trim());
+        contactRequest.setPhones(phones);
+        contactRequest.setEmails(emails);
+        contactRequest.setAddress(trimToNull(address));
+        contactRequest.setIsFavorite("Yes".equalsIgnoreCase(favoriteStr));
+        contactRequest.setTags(tags);
+        contactRequest.setNotes(trimToNull(notes));
+        return contactRequest;
+    }
 
+    // The export writes a missing address or note as an empty cell, read it back as null
+    private static String trimToNull(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return null;
+        }
+        return value.trim();
+    }
+
+    // Persist a batch of contacts in a single transaction and add them to the search index
+    private List<ContactDTO> saveBatch(List<ContactRequestDTO> requests) {
+        List<ContactDTO> saved;
+        try {
+            saved = transactionTemplate.execute(status -> {
+                List<Contact> contacts = new ArrayList<>(requests.size());
+                for (ContactRequestDTO request : requests) {
+                    Contact contact = new Contact();
+                    updateContactFromRequest(contact, request);
+                    contacts.add(contact);
+                }
+                contactRepository.saveAll(contacts);
+                entityManager.flush();
+                return contacts.stream()
+                        .map(this::convertToDTO)
+                        .collect(Collectors.toList());
+            });
+        } finally {
+            // Detach the batch so the persistence context does not grow with the import
+            entityManager.clear();
+        }
+
+        for (ContactDTO contact : saved) {
+            onContactSaved(contact, false);
+        }
+        return saved;
+    }
+
+    // Save one chunk of a bulk create, falling back to item by item so errors stay per item
+    private void saveCreateBatch(
+            List<ContactRequestDTO> batch, List<Integer> indexes, BatchCreateResultDTO result) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            for (ContactDTO contact : saveBatch(batch)) {
+                result.getCreatedIds().add(contact.getId());
+            }
+        } catch (RuntimeException e) {
+            for (int i = 0; i < batch.size(); i++) {
                 try {
-                    String name = getCellValue(row.getCell(1));
-                    String favoriteStr = getCellValue(row.getCell(2));
-                    String primaryPhone = getCellValue(row.getCell(3));
-                    String additionalPhones = getCellValue(row.getCell(4));
-                    String primaryEmail = getCellValue(row.getCell(5));
-                    String additionalEmails = getCellValue(row.getCell(6));
-                    String address = getCellValue(row.getCell(7));
-                    String tagsStr = getCellValue(row.getCell(8));
-                    String notes = getCellValue(row.getCell(9));
-
-                    // Validate required fields
-                    if (name == null || name.trim().isEmpty() || primaryPhone == null || primaryPhone.trim().isEmpty()) {
-                        continue; // Skip invalid rows
-                    }
+                    List<ContactDTO> saved = saveBatch(Collections.singletonList(batch.get(i)));
+                    result.getCreatedIds().add(saved.get(0).getId());
+                } catch (RuntimeException itemError) {
+                    result.getErrors().add(
+                            new BatchItemErrorDTO(indexes.get(i), itemError.getMessage()));
+                }
+            }
+        }
+    }
 
-                    // Prepare phone list
-                    List<String> phones = new ArrayList<>();
-                    phones.add(primaryPhone.trim());
-                    if (additionalPhones != null && !additionalPhones.trim().isEmpty()) {
-                        String[] additionalPhonesArray = additionalPhones.split(";");
-                        for (String phone : additionalPhonesArray) {
-                            if (!phone.trim().isEmpty()) {
-                                phones.add(phone.trim());
-                            }
-                        }
-                    }
+    // Bean validation plus the phone rule of createContact, returns null when the request is valid
+    private String validateRequest(ContactRequestDTO request) {
+        if (request == null) {
+            return "Contact is empty";
+        }
+        Set<ConstraintViolation<ContactRequestDTO>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+        }
+        if (request.getPhones() == null || request.getPhones().isEmpty()) {
+            return "At least one phone number is required";
+        }
+        return null;
+    }
 
-                    // Prepare email list
-                    List<String> emails = new ArrayList<>();
-                    if (primaryEmail != null && !primaryEmail.trim().isEmpty()) {
-                        emails.add(primaryEmail.trim());
-                    }
-                    if (additionalEmails != null && !additionalEmails.trim().isEmpty()) {
-                        String[] additionalEmailsArray = additionalEmails.split(";");
-                        for (String email : additionalEmailsArray) {
-                            if (!email.trim().isEmpty()) {
-                                emails.add(email.trim());
-                            }
-                        }
-                    }
+    private static final class NameIndex {
+        private final String version;
+        private final List<NameIndexEntryDTO> entries;
 
-                    // Prepare tags list
-                    List<String> tags = new ArrayList<>();
-                    if (tagsStr != null && !tagsStr.trim().isEmpty()) {
-                        String[] tagsArray = tagsStr.split(",");
-                        for (String tag : tagsArray) {
-                            if (!tag.trim().isEmpty()) {
-                                tags.add(tag.trim());
-                            }
-                        }
+        NameIndex(String version, List<NameIndexEntryDTO> entries) {
+            this.version = version;
+            this.entries = entries;
+        }
+    }
+
+    // Collects parsed import rows and writes them in batches of importBatchSize
+    private class ContactImportBatcher {
+        private final ImportSummaryDTO summary = new ImportSummaryDTO();
+        private final List<ContactRequestDTO> requests = new ArrayList<>();
+        private final List<Integer> rows = new ArrayList<>();
+        private final ImportProgressListener listener;
+        private final Counter importedRows;
+        private final Counter failedRows;
+
+        ContactImportBatcher(String format) {
+            this(format, null);
+        }
+
+        ContactImportBatcher(String format, ImportProgressListener listener) {
+            this.listener = listener;
+            this.importedRows = meterRegistry.counter(
+                    "contacts.import.rows", "format", format, "outcome", "imported");
+            this.failedRows = meterRegistry.counter(
+                    "contacts.import.rows", "format", format, "outcome", "failed");
+        }
+
+        void add(int row, ContactRequestDTO request) {
+            if (request == null) {
+                summary.recordFailure(row);
+                failedRows.increment();
+                return;
+            }
+            requests.add(request);
+            rows.add(row);
+            if (requests.size() >= importBatchSize) {
+                flush();
+            }
+        }
+
+        ImportSummaryDTO finish() {
+            flush();
+            summary.setCompleted(true);
+            return summary;
+        }
+
+        private void flush() {
+            if (requests.isEmpty()) {
+                return;
+            }
+            try {
+                int saved = saveBatch(requests).size();
+                summary.recordImported(saved);
+                importedRows.increment(saved);
+            } catch (RuntimeException e) {
+                // One bad row should not fail the whole batch, retry the rows one by one
+                for (int i = 0; i < requests.size(); i++) {
+                    try {
+                        saveBatch(Collections.singletonList(requests.get(i)));
+                        summary.recordImported(1);
+                        importedRows.increment();
+                    } catch (RuntimeException rowError) {
+                        log.warn("Error importing row {}: {}", rows.get(i), rowError.getMessage());
+                        summary.recordFailure(rows.get(i));
+                        failedRows.increment();
                     }
+                }
+            }
+            requests.clear();
+            rows.clear();
 
-                    // Create contact
-                    ContactRequestDTO contactRequest = new ContactRequestDTO();
-                    contactRequest.setName(name.trim());
-                    contactRequest.setPhones(phones);
-                    contactRequest.setEmails(emails);
-                    contactRequest.setAddress(address != null ? address.trim() : null);
-                    contactRequest.setIsFavorite("Yes".equalsIgnoreCase(favoriteStr));
-                    contactRequest.setTags(tags);
-                    contactRequest.setNotes(notes != null ? notes.trim() : null);
-
-                    ContactDTO contactDTO = createContact(contactRequest);
-                    importedContacts.add(contactDTO);
-
-                } catch (Exception e) {
-                    // Skip rows with errors and continue
-                    System.err.println("Error importing row: " + e.getMessage());
+            if (listener != null) {
+                listener.onProgress(summary);
+            }
+        }
+    }
+
+    @Override
+    public void exportContactsToJson(OutputStream outputStream) {
+        exportContactsToJson(outputStream, null);
+    }
+
+    @Override
+    public void exportContactsToJson(OutputStream outputStream, ExportProgressListener listener) {
+        // Each contact is written as soon as it is built, without flushing per value
+        ObjectWriter writer = objectMapper.writerFor(ContactDTO.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+            // Leave closing the response stream to the caller
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.writeStartArray();
+
+            long exported = 0;
+            Long after = null;
+            do {
+                ContactPageDTO page = getContactsPage(after, MAX_PAGE_SIZE);
+                for (ContactDTO contact : page.getContacts()) {
+                    writer.writeValue(generator, contact);
+                }
+                recordExported("json", page.getContacts().size());
+                exported += page.getContacts().size();
+                if (listener != null) {
+                    listener.onProgress(exported);
                 }
+                after = page.getNext();
+            } while (after != null);
+
+            generator.writeEndArray();
+            generator.flush();
+        } catch (IOException e) {
+            throw new RuntimeException("Error exporting to JSON: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public ImportSummaryDTO importContactsFromJson(InputStream inputStream) {
+        return importContactsFromJson(inputStream, null);
+    }
+
+    @Override
+    public ImportSummaryDTO importContactsFromJson(
+            InputStream inputStream, ImportProgressListener listener) {
+        ContactImportBatcher batcher = new ContactImportBatcher("json", listener);
+
+        try (JsonParser parser = objectMapper.getFactory().createParser(inputStream)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("JSON import expects an array of contacts");
+            }
+
+            // Read one array element at a time, so neither the body nor the result is buffered
+            int index = 0;
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                if (token == null) {
+                    throw new IllegalArgumentException("Unexpected end of JSON input");
+                }
+                // Bind through a tree so a malformed element fails alone without losing the
+                // parser position
+                JsonNode element = objectMapper.readTree(parser);
+                ContactRequestDTO request;
+                try {
+                    request = objectMapper.treeToValue(element, ContactRequestDTO.class);
+                } catch (JsonProcessingException e) {
+                    request = null;
+                }
+                batcher.add(index++, validateRequest(request) == null ? request : null);
             }
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid JSON: " + e.getOriginalMessage(), e);
+        } catch (IOException e) {
+            throw new RuntimeException("Error importing JSON: " + e.getMessage(), e);
+        }
 
-            return importedContacts;
+        return batcher.finish();
+    }
+
+    @Override
+    public void exportContactsToNdjson(OutputStream outputStream) {
+        exportContactsToNdjson(outputStream, null);
+    }
 
+    @Override
+    public void exportContactsToNdjson(OutputStream outputStream, ExportProgressListener listener) {
+        ObjectWriter writer = objectMapper.writerFor(ContactDTO.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+            long exported = 0;
+            Long after = null;
+            do {
+                ContactPageDTO page = getContactsPage(after, MAX_PAGE_SIZE);
+                for (ContactDTO contact : page.getContacts()) {
+                    // One contact per line
+                    writer.writeValue(generator, contact);
+                    generator.writeRaw('\n');
+                }
+                // Hand every page to the consumer instead of holding it in the buffer
+                generator.flush();
+                recordExported("ndjson", page.getContacts().size());
+                exported += page.getContacts().size();
+                if (listener != null) {
+                    listener.onProgress(exported);
+                }
+                after = page.getNext();
+            } while (after != null);
         } catch (IOException e) {
-            throw new RuntimeException("Error importing Excel file: " + e.getMessage(), e);
+            throw new RuntimeException("Error exporting to NDJSON: " + e.getMessage(), e);
         }
     }
 
     @Override
-    public String exportContactsToJson() {
-        List<ContactDTO> contacts = getAllContacts();
-        // Simple JSON serialization (in production, use Jackson directly)
-        StringBuilder json = new StringBuilder("[");
-        for (int i = 0; i < contacts.size(); i++) {
-            ContactDTO contact = contacts.get(i);
-            json.append("{")
-                    .append("\"id\":").append(contact.getId()).append(",")
-                    .append("\"name\":\"").append(contact.getName()).append("\",")
-                    .append("\"isFavorite\":").append(contact.getIsFavorite())
-                    .append("}");
-            if (i < contacts.size() - 1) {
-                json.append(",");
+    public ImportSummaryDTO importContactsFromNdjson(
+            InputStream inputStream, ImportProgressListener listener) {
+        ContactImportBatcher batcher = new ContactImportBatcher("ndjson", listener);
+
+        // Lines are read only as fast as batches commit, so a fast producer is held back by TCP
+        // flow control
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+            int lineNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.trim().isEmpty()) {
+                    continue;
+                }
+                ContactRequestDTO request;
+                try {
+                    request = objectMapper.readValue(line, ContactRequestDTO.class);
+                } catch (JsonProcessingException e) {
+                    request = null;
+                }
+                batcher.add(lineNumber, validateRequest(request) == null ? request : null);
             }
+        } catch (IOException e) {
+            throw new RuntimeException("Error importing NDJSON: " + e.getMessage(), e);
         }
-        json.append("]");
-        return json.toString();
+
+        return batcher.finish();
     }
 
     @Override
-    public List<ContactDTO> importContactsFromJson(String jsonContent) {
-        // Simplified implementation - in production, use Jackson ObjectMapper
-        // For now, just return empty list
-        return new ArrayList<>();
+    public ImportSummaryDTO generateContacts(int count, long seed) {
+        if (count <= 0 || count > MAX_GENERATED_CONTACTS) {
+            throw new IllegalArgumentException(
+                    "Count must be between 1 and " + MAX_GENERATED_CONTACTS);
+        }
+
+        // Same batched write path as the imports, importBatchSize contacts per transaction
+        ContactDataGenerator generator = new ContactDataGenerator(seed);
+        ContactImportBatcher batcher = new ContactImportBatcher("generated");
+        for (int i = 1; i <= count; i++) {
+            batcher.add(i, generator.next());
+        }
+        return batcher.finish();
     }
 
     // Helper methods
-    private ContactDTO convertToDTO(Contact contact) {
+
+    private void recordExported(String format, int rows) {
+        meterRegistry.counter("contacts.export.rows", "format", format).increment(rows);
+    }
+
+    // Keep the search index, tag counts and the DTO cache in step with a written contact
+    private void onContactSaved(ContactDTO contact, boolean wasFavorite) {
+        versionTracker.bump();
+        updateIndexes(Collections.singletonList(contact.getId()), () -> {
+            searchIndex.index(contact);
+            tagIndex.index(contact);
+        });
+        contactCache.evictContact(contact.getId());
+        if (wasFavorite || Boolean.TRUE.equals(contact.getIsFavorite())) {
+            contactCache.evictFavorites();
+        }
+    }
+
+    // Favorite flags were changed in place by an UPDATE statement
+    private void onFavoritesChanged(Collection<Long> ids) {
+        versionTracker.bump();
+        for (Long id : ids) {
+            contactCache.evictContact(id);
+        }
+        contactCache.evictFavorites();
+    }
+
+    // Apply an index write, and remember the IDs while a rebuild runs so it can catch up on them
+    private void updateIndexes(Collection<Long> ids, Runnable update) {
+        synchronized (indexLock) {
+            update.run();
+            Set<Long> written = rebuildWrittenIds;
+            if (written != null) {
+                written.addAll(ids);
+            }
+        }
+    }
+
+    private void onContactDeleted(Long id) {
+        versionTracker.bump();
+        updateIndexes(Collections.singletonList(id), () -> {
+            searchIndex.remove(id);
+            tagIndex.remove(id);
+        });
+        contactCache.evictContact(id);
+        contactCache.evictFavorites();
+    }
+
+    ContactDTO convertToDTO(Contact contact) {
+        return convertToDTO(contact, contact.getPhones(), contact.getEmails(), contact.getTags());
+    }
+
+    private ContactDTO convertToDTO(Contact contact, List<String> phones, List<String> emails,
+            List<String> tags) {
         ContactDTO dto = new ContactDTO();
         dto.setId(contact.getId());
         dto.setName(contact.getName());
-        dto.setPhones(new ArrayList<>(contact.getPhones()));
-        dto.setEmails(new ArrayList<>(contact.getEmails()));
+        dto.setPhones(new ArrayList<>(phones));
+        dto.setEmails(new ArrayList<>(emails));
         dto.setAddress(contact.getAddress());
         dto.setIsFavorite(contact.getIsFavorite());
-        dto.setTags(new ArrayList<>(contact.getTags()));
+        dto.setTags(new ArrayList<>(tags));
         dto.setNotes(contact.getNotes());
         dto.setCreatedAt(contact.getCreatedAt());
         dto.setLastModified(contact.getLastModified());
         return dto;
     }
 
+    // Cached DTOs are shared, so changes are made on a copy
+    private static ContactDTO withFavorite(ContactDTO source, boolean favorite, Date modified) {
+        ContactDTO contact = copyOf(source);
+        contact.setIsFavorite(favorite);
+        if (contact.getLastModified() == null || contact.getLastModified().before(modified)) {
+            contact.setLastModified(modified);
+        }
+        return contact;
+    }
+
+    // Copy of the ID-ordered favorites list with the contact added or removed by its flag
+    private static List<ContactDTO> withFavoriteListed(
+            List<ContactDTO> favorites, ContactDTO contact) {
+        List<ContactDTO> updated = new ArrayList<>(favorites.size() + 1);
+        for (ContactDTO favorite : favorites) {
+            if (!favorite.getId().equals(contact.getId())) {
+                updated.add(favorite);
+            }
+        }
+        if (Boolean.TRUE.equals(contact.getIsFavorite())) {
+            int position = 0;
+            while (position < updated.size()
+                    && updated.get(position).getId() < contact.getId()) {
+                position++;
+            }
+            updated.add(position, contact);
+        }
+        return updated;
+    }
+
+    private static ContactDTO copyOf(ContactDTO source) {
+        ContactDTO dto = new ContactDTO();
+        dto.setId(source.getId());
+        dto.setName(source.getName());
+        dto.setPhones(new ArrayList<>(source.getPhones()));
+        dto.setEmails(new ArrayList<>(source.getEmails()));
+        dto.setAddress(source.getAddress());
+        dto.setIsFavorite(source.getIsFavorite());
+        dto.setTags(new ArrayList<>(source.getTags()));
+        dto.setNotes(source.getNotes());
+        dto.setCreatedAt(source.getCreatedAt());
+        dto.setLastModified(source.getLastModified());
+        return dto;
+    }
+
+    // Convert a list of contacts without touching their lazy collections one by one:
+    // phones, emails and tags are each loaded with one IN query per COLLECTION_BATCH_SIZE contacts
+    private List<ContactDTO> convertToDTOs(List<Contact> contacts) {
+        if (contacts.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<Long> ids = contacts.stream()
+                .map(Contact::getId)
+                .collect(Collectors.toList());
+        Map<Long, List<String>> phones =
+                loadCollection(ids, contactRepository::findPhonesByContactIds);
+        Map<Long, List<String>> emails =
+                loadCollection(ids, contactRepository::findEmailsByContactIds);
+        Map<Long, List<String>> tags = loadCollection(ids, contactRepository::findTagsByContactIds);
+
+        List<ContactDTO> dtos = new ArrayList<>(contacts.size());
+        for (Contact contact : contacts) {
+            Long id = contact.getId();
+            dtos.add(convertToDTO(contact,
+                    phones.getOrDefault(id, new ArrayList<>()),
+                    emails.getOrDefault(id, new ArrayList<>()),
+                    tags.getOrDefault(id, new ArrayList<>())));
+        }
+        return dtos;
+    }
+
+    private Map<Long, List<String>> loadCollection(
+            List<Long> ids, Function<Collection<Long>, List<Object[]>> query) {
+        Map<Long, List<String>> values = new HashMap<>();
+        for (int from = 0; from < ids.size(); from += COLLECTION_BATCH_SIZE) {
+            List<Long> chunk =
+                    ids.subList(from, Math.min(from + COLLECTION_BATCH_SIZE, ids.size()));
+            for (Object[] row : query.apply(chunk)) {
+                values.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((String) row[1]);
+            }
+        }
+        return values;
+    }
+
+    private ContactRequestDTO toContactRequest(Contact contact) {
+        ContactRequestDTO request = new ContactRequestDTO();
+        request.setName(contact.getName());
+        request.setPhones(new ArrayList<>(contact.getPhones()));
+        request.setEmails(new ArrayList<>(contact.getEmails()));
+        request.setAddress(contact.getAddress());
+        request.setIsFavorite(contact.getIsFavorite());
+        request.setTags(new ArrayList<>(contact.getTags()));
+        request.setNotes(contact.getNotes());
+        return request;
+    }
+
     private void updateContactFromRequest(Contact contact, ContactRequestDTO request) {
         contact.setName(request.getName());
         contact.setPhones(request.getPhones());
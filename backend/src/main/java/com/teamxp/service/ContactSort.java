@@ -0,0 +1,88 @@
+package com.teamxp.service;
+
+import com.teamxp.entity.Contact;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Sort orders of the contact listing and their keyset cursors.
+ * A cursor is the sort order, the sort key and the ID of the last contact on a page,
+ * Base64url encoded; it is only accepted by the sort order that issued it.
+ */
+public enum ContactSort {
+    NAME("name", "nameKey", false),
+    NAME_DESC("-name", "nameKey", true),
+    CREATED("createdAt", "createdAt", false),
+    CREATED_DESC("-createdAt", "createdAt", true);
+
+    private final String parameter;
+    private final String property;
+    private final boolean descending;
+
+    ContactSort(String parameter, String property, boolean descending) {
+        this.parameter = parameter;
+        this.property = property;
+        this.descending = descending;
+    }
+
+    public static ContactSort parse(String parameter) {
+        for (ContactSort sort : values()) {
+            if (sort.parameter.equals(parameter)) {
+                return sort;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported sort: " + parameter);
+    }
+
+    public boolean isDescending() {
+        return descending;
+    }
+
+    public boolean isByName() {
+        return property.equals("nameKey");
+    }
+
+    // Sort key first, ID breaks ties in the same direction
+    public Sort toSort() {
+        Sort.Direction direction = descending ? Sort.Direction.DESC : Sort.Direction.ASC;
+        return Sort.by(direction, property, "id");
+    }
+
+    public String sortKey(Contact contact) {
+        return isByName() ? contact.getNameKey() : String.valueOf(contact.getCreatedAt().getTime());
+    }
+
+    public String encodeCursor(String sortKey, long id) {
+        String cursor = parameter + "\n" + sortKey + "\n" + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(cursor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Returns {sortKey, id}
+    public String[] decodeCursor(String cursor) {
+        String decoded;
+        try {
+            decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Malformed cursor: " + cursor, e);
+        }
+        int first = decoded.indexOf('\n');
+        int last = decoded.lastIndexOf('\n');
+        if (first < 0 || first == last) {
+            throw new IllegalArgumentException("Malformed cursor: " + cursor);
+        }
+        if (!decoded.substring(0, first).equals(parameter)) {
+            // e.g. a letter index cursor, which only works with sort=name
+            throw new IllegalArgumentException("Cursor was not issued for sort " + parameter);
+        }
+        String id = decoded.substring(last + 1);
+        try {
+            Long.parseLong(id);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Malformed cursor: " + cursor, e);
+        }
+        return new String[]{decoded.substring(first + 1, last), id};
+    }
+}
@@ -0,0 +1,246 @@
+package com.teamxp.service;
+
+import com.teamxp.dto.ContactDTO;
+import com.teamxp.dto.TagCountDTO;
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory tag dictionary with one compressed bitmap of contact IDs per tag, plus bitmaps of
+ * all contacts and of favorites. Tag filters are answered with bitmap AND/OR instead of joins
+ * over contact_tags, tag counts come from counters kept in step by the same writes.
+ * Contact IDs are stored as unsigned 32-bit values.
+ */
+@Component
+public class ContactTagIndex {
+
+    private static final int[] NO_TAGS = new int[0];
+    // Largest contact ID a 32-bit bitmap can hold
+    static final long MAX_CONTACT_ID = 0xFFFFFFFFL;
+
+    // Tag dictionary: tag -> small integer ID, and the ID indexes names and bitmaps.
+    // Replaced as a whole when a rebuilt index is swapped in, always accessed under the lock
+    private Map<String, Integer> tagIds = new HashMap<>();
+    private List<String> tagNames = new ArrayList<>();
+    private List<RoaringBitmap> tagBitmaps = new ArrayList<>();
+    // Per tag ID: {contacts, favorite contacts}
+    private List<long[]> tagCounts = new ArrayList<>();
+    private RoaringBitmap all = new RoaringBitmap();
+    private RoaringBitmap favorites = new RoaringBitmap();
+    // Tag IDs last seen for each contact, so a write only touches the bitmaps of changed tags
+    private Map<Long, int[]> contactTags = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // False until the first full rebuild after startup has finished
+    private volatile boolean ready;
+
+    // Add or replace a contact
+    public void index(ContactDTO contact) {
+        int key = toKey(contact.getId());
+        lock.writeLock().lock();
+        try {
+            int[] tags = contact.getTags() == null ? NO_TAGS : contact.getTags().stream()
+                    .filter(tag -> tag != null)
+                    .distinct()
+                    .mapToInt(this::tagId)
+                    .toArray();
+            boolean wasFavorite = favorites.contains(key);
+            boolean favorite = Boolean.TRUE.equals(contact.getIsFavorite());
+            int[] previous = contactTags.put(contact.getId(), tags);
+            if (previous != null) {
+                for (int tag : previous) {
+                    tagBitmaps.get(tag).remove(key);
+                    count(tag, -1, wasFavorite);
+                }
+            }
+            for (int tag : tags) {
+                tagBitmaps.get(tag).add(key);
+                count(tag, 1, favorite);
+            }
+            all.add(key);
+            if (favorite) {
+                favorites.add(key);
+            } else {
+                favorites.remove(key);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        int key = toKey(id);
+        lock.writeLock().lock();
+        try {
+            boolean wasFavorite = favorites.contains(key);
+            int[] previous = contactTags.remove(id);
+            if (previous != null) {
+                for (int tag : previous) {
+                    tagBitmaps.get(tag).remove(key);
+                    count(tag, -1, wasFavorite);
+                }
+            }
+            all.remove(key);
+            favorites.remove(key);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Set or clear the favorite bit, unknown IDs are ignored
+    public void setFavorite(Collection<Long> ids, boolean favorite) {
+        lock.writeLock().lock();
+        try {
+            for (Long id : ids) {
+                int key = toKey(id);
+                if (!all.contains(key) || favorites.contains(key) == favorite) {
+                    continue;
+                }
+                if (favorite) {
+                    favorites.add(key);
+                } else {
+                    favorites.remove(key);
+                }
+                for (int tag : contactTags.getOrDefault(id, NO_TAGS)) {
+                    tagCounts.get(tag)[1] += favorite ? 1 : -1;
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Take over the contents of an index rebuilt off to the side, which must not be used afterwards
+    public void replaceWith(ContactTagIndex rebuilt) {
+        lock.writeLock().lock();
+        try {
+            tagIds = rebuilt.tagIds;
+            tagNames = rebuilt.tagNames;
+            tagBitmaps = rebuilt.tagBitmaps;
+            tagCounts = rebuilt.tagCounts;
+            all = rebuilt.all;
+            favorites = rebuilt.favorites;
+            contactTags = rebuilt.contactTags;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void markReady() {
+        ready = true;
+    }
+
+    // Every tag in use, most used first
+    public List<TagCountDTO> getCounts() {
+        List<TagCountDTO> result = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (int tag = 0; tag < tagCounts.size(); tag++) {
+                long[] count = tagCounts.get(tag);
+                if (count[0] > 0) {
+                    result.add(new TagCountDTO(tagNames.get(tag), count[1], count[0] - count[1]));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        result.sort(Comparator.comparingLong(TagCountDTO::getCount).reversed()
+                .thenComparing(TagCountDTO::getTag));
+        return result;
+    }
+
+    // IDs after the cursor of contacts carrying all (or any) of the tags, optionally filtered
+    // by favorite status, in ID order; an empty tag list matches every contact
+    public List<Long> filter(
+            List<String> tags, boolean matchAll, Boolean favorite, Long after, int limit) {
+        List<Long> ids = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            RoaringBitmap matched = matchTags(tags, matchAll);
+            if (favorite != null) {
+                matched = favorite
+                        ? RoaringBitmap.and(matched, favorites)
+                        : RoaringBitmap.andNot(matched, favorites);
+            }
+
+            PeekableIntIterator iterator = matched.getIntIterator();
+            if (after != null && after >= 0) {
+                if (after >= MAX_CONTACT_ID) {
+                    return ids;
+                }
+                iterator.advanceIfNeeded((int) (after + 1));
+            }
+            while (iterator.hasNext() && ids.size() < limit) {
+                ids.add(Integer.toUnsignedLong(iterator.next()));
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private RoaringBitmap matchTags(List<String> tags, boolean matchAll) {
+        if (tags.isEmpty()) {
+            return all;
+        }
+        List<RoaringBitmap> bitmaps = new ArrayList<>();
+        for (String tag : tags) {
+            Integer id = tagIds.get(tag);
+            if (id != null) {
+                bitmaps.add(tagBitmaps.get(id));
+            } else if (matchAll) {
+                // A tag nobody has makes the intersection empty
+                return new RoaringBitmap();
+            }
+        }
+        if (bitmaps.isEmpty()) {
+            return new RoaringBitmap();
+        }
+        return matchAll
+                ? FastAggregation.and(bitmaps.iterator())
+                : FastAggregation.or(bitmaps.iterator());
+    }
+
+    // Caller holds the write lock
+    private int tagId(String tag) {
+        Integer id = tagIds.get(tag);
+        if (id == null) {
+            id = tagNames.size();
+            tagIds.put(tag, id);
+            tagNames.add(tag);
+            tagBitmaps.add(new RoaringBitmap());
+            tagCounts.add(new long[2]);
+        }
+        return id;
+    }
+
+    // Caller holds the write lock
+    private void count(int tag, int delta, boolean favorite) {
+        long[] count = tagCounts.get(tag);
+        count[0] += delta;
+        if (favorite) {
+            count[1] += delta;
+        }
+    }
+
+    private static int toKey(Long id) {
+        if (id == null || id < 0 || id > MAX_CONTACT_ID) {
+            throw new IllegalStateException("Contact ID out of tag index range: " + id);
+        }
+        return (int) id.longValue();
+    }
+}
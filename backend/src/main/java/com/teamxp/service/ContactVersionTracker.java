@@ -0,0 +1,24 @@
+package com.teamxp.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cheap version of the contact collection, bumped on every write.
+ * The startup time is part of the tag so versions from an earlier run never match.
+ */
+@Component
+public class ContactVersionTracker {
+
+    private final long epoch = System.currentTimeMillis();
+    private final AtomicLong version = new AtomicLong();
+
+    public void bump() {
+        version.incrementAndGet();
+    }
+
+    public String currentTag() {
+        return "c-" + epoch + "-" + version.get();
+    }
+}
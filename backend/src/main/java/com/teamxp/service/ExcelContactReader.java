@@ -0,0 +1,96 @@
+package com.teamxp.service;
+
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+
+/**
+ * Event-based (SAX) reader for the first sheet of an .xlsx file.
+ * Rows are handed over one at a time, so memory does not grow with the row count.
+ * Files written by our streaming export use inline strings, so the shared strings table stays
+ * small.
+ */
+class ExcelContactReader {
+
+    // Receives the formatted cell values of one row, indexed by column
+    interface RowHandler {
+        void row(int rowNumber, String[] cells);
+    }
+
+    private final int columnCount;
+
+    ExcelContactReader(int columnCount) {
+        this.columnCount = columnCount;
+    }
+
+    void read(File file, RowHandler handler) throws IOException {
+        try (OPCPackage pkg = OPCPackage.open(file, PackageAccess.READ)) {
+            XSSFReader reader = new XSSFReader(pkg);
+            ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg);
+            StylesTable styles = reader.getStylesTable();
+
+            Iterator<InputStream> sheets = reader.getSheetsData();
+            if (!sheets.hasNext()) {
+                return;
+            }
+
+            try (InputStream sheet = sheets.next()) {
+                XMLReader parser = XMLHelper.newXMLReader();
+                parser.setContentHandler(new XSSFSheetXMLHandler(styles, null, strings,
+                        new RowCollector(handler), new DataFormatter(), false));
+                parser.parse(new InputSource(sheet));
+            }
+        } catch (OpenXML4JException | SAXException | ParserConfigurationException e) {
+            throw new IOException("Invalid Excel file: " + e.getMessage(), e);
+        }
+    }
+
+    // Collects cells of the current row and passes the completed row on
+    private class RowCollector implements XSSFSheetXMLHandler.SheetContentsHandler {
+        private final RowHandler handler;
+        private String[] cells;
+        private int nextColumn;
+
+        RowCollector(RowHandler handler) {
+            this.handler = handler;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            cells = new String[columnCount];
+            nextColumn = 0;
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            handler.row(rowNum, cells);
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            int column = cellReference != null
+                    ? new CellReference(cellReference).getCol() : nextColumn;
+            nextColumn = column + 1;
+            if (column < columnCount) {
+                cells[column] = formattedValue;
+            }
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.teamxp.service;
+
+// Notified after each exported page with the number of rows written so far
+@FunctionalInterface
+public interface ExportProgressListener {
+
+    void onProgress(long exportedRows);
+}
@@ -0,0 +1,10 @@
+package com.teamxp.service;
+
+import com.teamxp.dto.ImportSummaryDTO;
+
+// Notified after each committed import batch with the running totals
+@FunctionalInterface
+public interface ImportProgressListener {
+
+    void onProgress(ImportSummaryDTO progress);
+}
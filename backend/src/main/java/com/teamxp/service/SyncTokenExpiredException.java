@@ -0,0 +1,9 @@
+package com.teamxp.service;
+
+// The sync token predates the tombstone retention period, the client has to resync from scratch
+public class SyncTokenExpiredException extends RuntimeException {
+
+    public SyncTokenExpiredException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,55 @@
+package com.teamxp.service;
+
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * JPA transaction manager that remembers when each open read-write transaction began.
+ * Rows a transaction writes are stamped no earlier than its start, so delta sync can stop
+ * just before the oldest open transaction and never step over a row that commits later.
+ */
+public class WriteTrackingTransactionManager extends JpaTransactionManager {
+
+    // Start time of every open read-write transaction, keyed by its transaction object
+    private final Map<Object, Long> openWrites = new ConcurrentHashMap<>();
+
+    public WriteTrackingTransactionManager(EntityManagerFactory entityManagerFactory) {
+        super(entityManagerFactory);
+    }
+
+    // Start time of the oldest read-write transaction still open, or the fallback when none is
+    public long oldestOpenWriteStart(long fallback) {
+        long oldest = fallback;
+        for (Long started : openWrites.values()) {
+            oldest = Math.min(oldest, started);
+        }
+        return oldest;
+    }
+
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {
+        // Taken before the transaction starts, so it is never later than a timestamp written inside
+        if (!definition.isReadOnly()) {
+            openWrites.put(transaction, System.currentTimeMillis());
+        }
+        try {
+            super.doBegin(transaction, definition);
+        } catch (RuntimeException | Error e) {
+            openWrites.remove(transaction);
+            throw e;
+        }
+    }
+
+    @Override
+    protected void doCleanupAfterCompletion(Object transaction) {
+        try {
+            super.doCleanupAfterCompletion(transaction);
+        } finally {
+            openWrites.remove(transaction);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.text.Normalizer;
+import java.util.Locale;
+
+/**
+ * Adds the name sort key and the indexes for sorted listing.
+ * The key is computed in Java with a frozen copy of Contact.nameKey as of this version, so the
+ * migration keeps producing the same keys when the entity's normalization changes later.
+ */
+public class V2__Add_contact_sort_keys extends BaseJavaMigration {
+
+    private static final int UPDATE_BATCH_SIZE = 1000;
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ALTER TABLE contacts ADD COLUMN name_key VARCHAR(255)");
+        }
+
+        try (Statement select = connection.createStatement();
+             ResultSet rows = select.executeQuery("SELECT id, name FROM contacts");
+             PreparedStatement update = connection.prepareStatement(
+                     "UPDATE contacts SET name_key = ? WHERE id = ?")) {
+            int pending = 0;
+            while (rows.next()) {
+                update.setString(1, nameKey(rows.getString(2)));
+                update.setLong(2, rows.getLong(1));
+                update.addBatch();
+                if (++pending == UPDATE_BATCH_SIZE) {
+                    update.executeBatch();
+                    pending = 0;
+                }
+            }
+            update.executeBatch();
+        }
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ALTER TABLE contacts ALTER COLUMN name_key SET NOT NULL");
+            statement.execute("CREATE INDEX idx_contacts_name_key ON contacts (name_key, id)");
+            statement.execute("CREATE INDEX idx_contacts_created_at ON contacts (created_at, id)");
+        }
+    }
+
+    // Copy of Contact.nameKey when this migration was written, do not change
+    private static String nameKey(String name) {
+        if (name == null) {
+            return "";
+        }
+        String key = Normalizer.normalize(name.trim(), Normalizer.Form.NFD)
+                .replaceAll("\\p{M}+", "")
+                .toLowerCase(Locale.ROOT);
+        return key.length() > 255 ? key.substring(0, 255) : key;
+    }
+}
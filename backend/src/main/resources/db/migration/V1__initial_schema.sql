@@ -0,0 +1,69 @@
+-- Initial schema, matches the JPA mapping validated by the persistent profile
+
+CREATE SEQUENCE contact_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE contacts (
+    id            BIGINT        NOT NULL,
+    name          VARCHAR(255)  NOT NULL,
+    address       VARCHAR(500),
+    is_favorite   BOOLEAN       NOT NULL,
+    notes         VARCHAR(1000),
+    created_at    TIMESTAMP     NOT NULL,
+    last_modified TIMESTAMP     NOT NULL,
+    PRIMARY KEY (id)
+);
+CREATE INDEX idx_contacts_last_modified ON contacts (last_modified, id);
+
+CREATE TABLE contact_phones (
+    contact_id       BIGINT       NOT NULL,
+    phone_number     VARCHAR(255),
+    phone_normalized VARCHAR(32),
+    phone_reversed   VARCHAR(32),
+    list_index       INTEGER      NOT NULL,
+    PRIMARY KEY (contact_id, list_index),
+    CONSTRAINT fk_contact_phones_contact FOREIGN KEY (contact_id) REFERENCES contacts (id)
+);
+CREATE INDEX idx_contact_phones_normalized ON contact_phones (phone_normalized);
+CREATE INDEX idx_contact_phones_reversed ON contact_phones (phone_reversed);
+
+CREATE TABLE contact_emails (
+    contact_id    BIGINT       NOT NULL,
+    email_address VARCHAR(255),
+    list_index    INTEGER      NOT NULL,
+    PRIMARY KEY (contact_id, list_index),
+    CONSTRAINT fk_contact_emails_contact FOREIGN KEY (contact_id) REFERENCES contacts (id)
+);
+
+CREATE TABLE contact_tags (
+    contact_id BIGINT       NOT NULL,
+    tag        VARCHAR(255),
+    list_index INTEGER      NOT NULL,
+    PRIMARY KEY (contact_id, list_index),
+    CONSTRAINT fk_contact_tags_contact FOREIGN KEY (contact_id) REFERENCES contacts (id)
+);
+
+CREATE TABLE contact_social_media (
+    contact_id BIGINT       NOT NULL,
+    account    VARCHAR(255),
+    platform   VARCHAR(255),
+    list_index INTEGER      NOT NULL,
+    PRIMARY KEY (contact_id, list_index),
+    CONSTRAINT fk_contact_social_media_contact FOREIGN KEY (contact_id) REFERENCES contacts (id)
+);
+
+CREATE TABLE contact_deletions (
+    id         BIGINT    AUTO_INCREMENT NOT NULL,
+    contact_id BIGINT    NOT NULL,
+    deleted_at TIMESTAMP NOT NULL,
+    PRIMARY KEY (id)
+);
+CREATE INDEX idx_contact_deletions_deleted_at ON contact_deletions (deleted_at);
+
+CREATE TABLE users (
+    id       BIGINT       AUTO_INCREMENT NOT NULL,
+    username VARCHAR(255) NOT NULL,
+    password VARCHAR(255) NOT NULL,
+    email    VARCHAR(255),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_users_username UNIQUE (username)
+);
@@ -0,0 +1,89 @@
+package com.teamxp;
+
+import com.teamxp.entity.Contact;
+import com.teamxp.entity.PhoneNumber;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+
+// Fills an empty contacts schema with plain JDBC batches; loading through JPA would dominate the
+// benchmarks
+public final class BenchmarkDataLoader {
+
+    private static final int INSERT_BATCH_SIZE = 10_000;
+
+    private BenchmarkDataLoader() {}
+
+    // Inserts contacts with IDs 1..count, each with one phone, email and tag, and moves the ID
+    // sequence past them
+    public static void insertContacts(Connection connection, int count) throws SQLException {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try (PreparedStatement contact = connection.prepareStatement(
+                "INSERT INTO contacts (id, name, name_key, is_favorite, created_at, last_modified)"
+                        + " VALUES (?, ?, ?, ?, ?, ?)");
+             PreparedStatement phone = connection.prepareStatement(
+                     "INSERT INTO contact_phones (contact_id, phone_number, phone_normalized,"
+                             + " phone_reversed, list_index) VALUES (?, ?, ?, ?, 0)");
+             PreparedStatement email = connection.prepareStatement(
+                     "INSERT INTO contact_emails (contact_id, email_address, list_index)"
+                             + " VALUES (?, ?, 0)");
+             PreparedStatement tag = connection.prepareStatement(
+                     "INSERT INTO contact_tags (contact_id, tag, list_index) VALUES (?, ?, 0)")) {
+            for (int id = 1; id <= count; id++) {
+                contact.setLong(1, id);
+                String name = "Benchmark Contact " + id;
+                contact.setString(2, name);
+                contact.setString(3, Contact.nameKey(name));
+                contact.setBoolean(4, id % 10 == 0);
+                contact.setTimestamp(5, now);
+                contact.setTimestamp(6, now);
+                contact.addBatch();
+
+                PhoneNumber number = new PhoneNumber(String.format("+1-555-%07d", id));
+                phone.setLong(1, id);
+                phone.setString(2, number.getNumber());
+                phone.setString(3, number.getNormalized());
+                phone.setString(4, number.getReversed());
+                phone.addBatch();
+
+                email.setLong(1, id);
+                email.setString(2, "contact" + id + "@example.com");
+                email.addBatch();
+
+                tag.setLong(1, id);
+                tag.setString(2, "Group" + (id % 100));
+                tag.addBatch();
+
+                if (id % INSERT_BATCH_SIZE == 0 || id == count) {
+                    contact.executeBatch();
+                    phone.executeBatch();
+                    email.executeBatch();
+                    tag.executeBatch();
+                    connection.commit();
+                }
+            }
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("ALTER SEQUENCE contact_seq RESTART WITH " + (count + 1));
+            }
+            connection.commit();
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    // Removes every contact row, child tables first
+    public static void deleteContacts(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DELETE FROM contact_phones");
+            statement.execute("DELETE FROM contact_emails");
+            statement.execute("DELETE FROM contact_tags");
+            statement.execute("DELETE FROM contact_social_media");
+            statement.execute("DELETE FROM contacts");
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.teamxp;
+
+import com.teamxp.repository.ContactRepository;
+import com.teamxp.service.ContactSearchIndex;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Warm restart of the persistent profile against a large stored address book.
+ * Run with: mvn -Pbenchmark test -Dbenchmark.contacts=1000000
+ */
+@Tag("benchmark")
+class StartupBenchmarkTests {
+
+    private static final int CONTACTS = Integer.getInteger("benchmark.contacts", 1_000_000);
+    private static final long STARTUP_BUDGET_MILLIS =
+            Long.getLong("benchmark.startup-budget-ms", 20_000L);
+
+    @TempDir
+    Path dataDir;
+
+    @Test
+    void warmRestartWithLargeStoreStaysWithinBudget() throws Exception {
+        String url = "jdbc:h2:file:" + dataDir.resolve("teamxpdb").toAbsolutePath()
+                + ";DB_CLOSE_ON_EXIT=FALSE";
+        Flyway.configure().dataSource(url, "sa", "").load().migrate();
+        try (Connection connection = DriverManager.getConnection(url, "sa", "")) {
+            BenchmarkDataLoader.insertContacts(connection, CONTACTS);
+        }
+
+        long started = System.nanoTime();
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(Application.class)
+                .profiles("persistent")
+                // Command-line args, so the url wins over the one in application-persistent
+                .run("--spring.datasource.url=" + url, "--server.port=0");
+        try {
+            long startupMillis = (System.nanoTime() - started) / 1_000_000;
+
+            ContactSearchIndex searchIndex = context.getBean(ContactSearchIndex.class);
+            while (!searchIndex.isReady()) {
+                Thread.sleep(100);
+            }
+            long indexMillis = (System.nanoTime() - started) / 1_000_000;
+
+            System.out.println("Warm restart with " + CONTACTS + " contacts: ready in "
+                    + startupMillis + " ms, search index complete in " + indexMillis + " ms");
+            // Seeding must not have touched a non-empty store
+            assertEquals(CONTACTS, context.getBean(ContactRepository.class).count());
+            assertTrue(startupMillis <= STARTUP_BUDGET_MILLIS,
+                    "Startup took " + startupMillis + " ms, budget is " + STARTUP_BUDGET_MILLIS
+                            + " ms");
+        } finally {
+            context.close();
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.teamxp.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.teamxp.dto.ContactDTO;
+import com.teamxp.dto.ContactRequestDTO;
+import com.teamxp.dto.ImportSummaryDTO;
+import com.teamxp.service.ContactService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureMockMvc
+class ContactControllerTests {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ContactService contactService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    // HttpURLConnection leaves Content-Encoding alone and does not unzip the body
+    private final RestTemplate restTemplate =
+            new RestTemplate(new SimpleClientHttpRequestFactory());
+
+    @BeforeEach
+    void setUp() {
+        contactService.deleteAllContacts();
+    }
+
+    @AfterEach
+    void tearDown() {
+        contactService.deleteAllContacts();
+    }
+
+    @Test
+    void contactListIsGzippedAndRevalidatedWithWeakETag() {
+        // Enough contacts to pass server.compression.min-response-size
+        for (int i = 0; i < 40; i++) {
+            ContactRequestDTO request = new ContactRequestDTO();
+            request.setName("Gzip Contact " + i);
+            request.setPhones(Arrays.asList("555-200-" + i));
+            request.setEmails(Arrays.asList("gzip" + i + "@example.com"));
+            request.setTags(Arrays.asList("Gzip"));
+            contactService.createContact(request);
+        }
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        String url = "http://localhost:" + port + "/contacts";
+        ResponseEntity<byte[]> response = restTemplate.exchange(url, HttpMethod.GET,
+                new HttpEntity<>(headers), byte[].class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("gzip", response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        // The tag is weak on purpose, Tomcat would skip gzip for a strong one
+        String eTag = response.getHeaders().getETag();
+        assertTrue(eTag != null && eTag.startsWith("W/\""), "Expected a weak ETag but got " + eTag);
+        assertEquals(contactService.getCollectionETag(), eTag);
+
+        headers.setIfNoneMatch(eTag);
+        ResponseEntity<byte[]> revalidated = restTemplate.exchange(url, HttpMethod.GET,
+                new HttpEntity<>(headers), byte[].class);
+        assertEquals(HttpStatus.NOT_MODIFIED, revalidated.getStatusCode());
+    }
+
+    @Test
+    void smileAndCborAreNegotiatedFromAcceptAndContentType() throws Exception {
+        assertBinaryRoundTrip(MediaType.parseMediaType("application/x-jackson-smile"),
+                Jackson2ObjectMapperBuilder.smile().build(), "Smile Contact");
+        assertBinaryRoundTrip(MediaType.parseMediaType("application/cbor"),
+                Jackson2ObjectMapperBuilder.cbor().build(), "Cbor Contact");
+
+        // Clients accepting anything still get JSON
+        mockMvc.perform(get("/contacts").accept(MediaType.ALL))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+    }
+
+    // Creates a contact with a binary body, then reads it back in the same format
+    private void assertBinaryRoundTrip(MediaType type, ObjectMapper mapper, String name)
+            throws Exception {
+        ContactRequestDTO request = new ContactRequestDTO();
+        request.setName(name);
+        request.setPhones(Arrays.asList("555-240-0001"));
+        request.setEmails(Arrays.asList("binary@example.com"));
+        request.setTags(Arrays.asList("Binary"));
+
+        MvcResult created = mockMvc.perform(post("/contacts")
+                        .contentType(type)
+                        .accept(type)
+                        .content(mapper.writeValueAsBytes(request)))
+                .andExpect(status().isCreated())
+                .andExpect(content().contentTypeCompatibleWith(type))
+                .andReturn();
+        ContactDTO contact = mapper.readValue(
+                created.getResponse().getContentAsByteArray(), ContactDTO.class);
+        assertEquals(name, contact.getName());
+
+        MvcResult fetched = mockMvc.perform(get("/contacts/" + contact.getId()).accept(type))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(type))
+                .andReturn();
+        ContactDTO read = mapper.readValue(
+                fetched.getResponse().getContentAsByteArray(), ContactDTO.class);
+        assertEquals(name, read.getName());
+        assertEquals(Arrays.asList("555-240-0001"), read.getPhones());
+        assertEquals(Arrays.asList("binary@example.com"), read.getEmails());
+        assertEquals(Arrays.asList("Binary"), read.getTags());
+        assertEquals(contact.getCreatedAt(), read.getCreatedAt());
+    }
+
+    @Test
+    void ndjsonExportWritesOneContactPerLine() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            ContactRequestDTO request = new ContactRequestDTO();
+            request.setName("Ndjson Contact " + i);
+            request.setPhones(Arrays.asList("555-210-" + i));
+            contactService.createContact(request);
+        }
+
+        ResponseEntity<String> response = restTemplate.getForEntity(
+                "http://localhost:" + port + "/contacts/export/ndjson", String.class);
+
+        assertEquals(MediaType.APPLICATION_NDJSON,
+                response.getHeaders().getContentType());
+        String[] lines = response.getBody().split("\n");
+        assertEquals(3, lines.length);
+        for (int i = 0; i < lines.length; i++) {
+            ContactDTO contact = objectMapper.readValue(lines[i], ContactDTO.class);
+            assertEquals("Ndjson Contact " + i, contact.getName());
+        }
+    }
+
+    @Test
+    void ndjsonImportStreamsProgressLinesAndReportsMalformedLines() throws Exception {
+        // Two full batches of 500, with a malformed third line
+        StringBuilder body = new StringBuilder();
+        for (int i = 1; i <= 1001; i++) {
+            if (i == 3) {
+                body.append("{\"name\": \"Broken\", \"phones\": [\n");
+                continue;
+            }
+            ContactRequestDTO request = new ContactRequestDTO();
+            request.setName("Streamed Contact " + i);
+            request.setPhones(Arrays.asList("555-220-" + i));
+            body.append(objectMapper.writeValueAsString(request)).append('\n');
+        }
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_NDJSON);
+        ResponseEntity<String> response = restTemplate.postForEntity(
+                "http://localhost:" + port + "/contacts/import/ndjson",
+                new HttpEntity<>(body.toString(), headers), String.class);
+
+        // One line per committed batch, then the final summary
+        List<ImportSummaryDTO> progress = new ArrayList<>();
+        for (String line : response.getBody().split("\n")) {
+            progress.add(objectMapper.readValue(line, ImportSummaryDTO.class));
+        }
+        assertEquals(3, progress.size());
+        assertFalse(progress.get(0).isCompleted());
+        assertEquals(500, progress.get(0).getImported());
+        assertFalse(progress.get(1).isCompleted());
+        assertEquals(1000, progress.get(1).getImported());
+        ImportSummaryDTO last = progress.get(2);
+        assertTrue(last.isCompleted());
+        assertEquals(1000, last.getImported());
+        assertEquals(1, last.getFailed());
+        assertEquals(Arrays.asList(3), last.getFailedRows());
+    }
+}
@@ -0,0 +1,174 @@
+package com.teamxp.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.teamxp.dto.DuplicateReportDTO;
+import com.teamxp.dto.JobStatusDTO;
+import com.teamxp.service.ContactDuplicateFinder;
+import com.teamxp.service.ContactJobService;
+import com.teamxp.service.ContactService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// One worker and one queue slot, so the third job in flight is rejected; finished jobs expire at
+// the next cleanup
+@SpringBootTest(properties = {
+        "contacts.jobs.threads=1",
+        "contacts.jobs.queue-capacity=1",
+        "contacts.jobs.retention-minutes=0"})
+@AutoConfigureMockMvc
+class JobControllerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ContactService contactService;
+
+    @Autowired
+    private ContactJobService jobService;
+
+    @MockBean
+    private ContactDuplicateFinder duplicateFinder;
+
+    @BeforeEach
+    void setUp() {
+        contactService.deleteAllContacts();
+    }
+
+    @AfterEach
+    void tearDown() {
+        contactService.deleteAllContacts();
+    }
+
+    @Test
+    void importJobReportsProgressAndDeletesItsUpload() throws Exception {
+        // A unique name, so the job's copy of the upload can be found in the temp directory
+        String filename = "job-" + UUID.randomUUID() + ".ndjson";
+        String body = "{\"name\": \"Job One\", \"phones\": [\"555-230-0001\"]}\n"
+                + "not json\n"
+                + "{\"name\": \"Job Two\", \"phones\": [\"555-230-0002\"]}\n";
+        MockMultipartFile file = new MockMultipartFile(
+                "file", filename, "application/x-ndjson", body.getBytes(StandardCharsets.UTF_8));
+
+        MvcResult submitted = mockMvc.perform(multipart("/contacts/import/jobs").file(file))
+                .andExpect(status().isAccepted())
+                .andReturn();
+        JobStatusDTO job = readJob(submitted);
+        assertEquals("/jobs/" + job.getId(),
+                submitted.getResponse().getHeader(HttpHeaders.LOCATION));
+
+        JobStatusDTO finished = awaitFinished(job.getId());
+        assertEquals(ContactJobService.SUCCEEDED, finished.getState());
+        assertEquals(2, finished.getProcessedRows());
+        assertEquals(1, finished.getFailedRows());
+        assertEquals(2, finished.getFailedRowNumbers().get(0));
+        File[] leftovers = new File(System.getProperty("java.io.tmpdir"))
+                .listFiles((dir, name) -> name.endsWith(filename));
+        assertEquals(0, leftovers == null ? 0 : leftovers.length);
+    }
+
+    @Test
+    void exportResultIsDeletedWhenTheJobExpires() throws Exception {
+        JobStatusDTO job = readJob(mockMvc.perform(post("/contacts/export/jobs?format=json"))
+                .andExpect(status().isAccepted())
+                .andReturn());
+        assertEquals(ContactJobService.SUCCEEDED, awaitFinished(job.getId()).getState());
+        File result = jobService.getResult(job.getId());
+        assertNotNull(result);
+        mockMvc.perform(get("/jobs/" + job.getId() + "/result"))
+                .andExpect(status().isOk());
+
+        jobService.removeExpiredJobs();
+        assertFalse(result.exists());
+        mockMvc.perform(get("/jobs/" + job.getId()))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void fullQueueAnswers503WithRetryAfter() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(duplicateFinder.findDuplicates(any())).thenAnswer(invocation -> {
+            release.await();
+            return new DuplicateReportDTO();
+        });
+
+        // The first scan takes the only worker and blocks, the second waits in the queue
+        JobStatusDTO running = readJob(mockMvc.perform(post("/contacts/duplicates/jobs"))
+                .andExpect(status().isAccepted())
+                .andReturn());
+        JobStatusDTO queued = readJob(mockMvc.perform(post("/contacts/duplicates/jobs"))
+                .andExpect(status().isAccepted())
+                .andReturn());
+        mockMvc.perform(post("/contacts/export/jobs?format=json"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "30"));
+
+        release.countDown();
+        assertEquals(ContactJobService.SUCCEEDED, awaitFinished(running.getId()).getState());
+        assertEquals(ContactJobService.SUCCEEDED, awaitFinished(queued.getId()).getState());
+    }
+
+    @Test
+    void jobFailingWithAnErrorIsMarkedFailed() throws Exception {
+        when(duplicateFinder.findDuplicates(any())).thenThrow(new AssertionError("scan blew up"));
+
+        JobStatusDTO job = readJob(mockMvc.perform(post("/contacts/duplicates/jobs"))
+                .andExpect(status().isAccepted())
+                .andReturn());
+
+        JobStatusDTO finished = awaitFinished(job.getId());
+        assertEquals(ContactJobService.FAILED, finished.getState());
+        assertEquals("scan blew up", finished.getError());
+        assertNull(jobService.getResult(job.getId()));
+    }
+
+    private JobStatusDTO readJob(MvcResult result) throws Exception {
+        return objectMapper.readValue(
+                result.getResponse().getContentAsByteArray(), JobStatusDTO.class);
+    }
+
+    // Polls the status endpoint until the job has a finish time
+    private JobStatusDTO awaitFinished(String id) throws Exception {
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (true) {
+            JobStatusDTO job = readJob(mockMvc.perform(get("/jobs/" + id))
+                    .andExpect(status().isOk())
+                    .andReturn());
+            if (job.getFinishedAt() != null) {
+                return job;
+            }
+            assertTrue(System.currentTimeMillis() < deadline, "Job " + id + " did not finish");
+            Thread.sleep(50);
+        }
+    }
+}
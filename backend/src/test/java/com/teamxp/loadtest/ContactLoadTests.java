@@ -0,0 +1,266 @@
+package com.teamxp.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.teamxp.dto.ContactDTO;
+import com.teamxp.dto.ContactPageDTO;
+import com.teamxp.dto.ContactRequestDTO;
+import com.teamxp.service.ContactDataGenerator;
+import com.teamxp.service.ContactService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Open-model load test: drives the REST endpoints with a seeded mix of search, CRUD and export
+ * requests at a fixed target rate and reports throughput and latency percentiles per operation.
+ * Run with:
+ * mvn -Ploadtest test -Dloadtest.rate=200 -Dloadtest.duration-seconds=60 -Dloadtest.contacts=100000
+ * The report is written to target/loadtest-report.json and logged.
+ */
+@Tag("loadtest")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"spring.jpa.show-sql=false",
+                "spring.jpa.properties.hibernate.format_sql=false"})
+class ContactLoadTests {
+
+    private static final Logger log = LoggerFactory.getLogger(ContactLoadTests.class);
+
+    private static final int RATE = Integer.getInteger("loadtest.rate", 100);
+    private static final int DURATION_SECONDS = Integer.getInteger("loadtest.duration-seconds", 30);
+    private static final int CONTACTS = Integer.getInteger("loadtest.contacts", 10_000);
+    private static final long SEED = Long.getLong("loadtest.seed", 42L);
+    private static final int WORKERS = Integer.getInteger("loadtest.workers", 64);
+    // Fails the run when fewer than this share of requests succeed
+    private static final double MIN_SUCCESS_RATE = 0.99;
+
+    // Operation mix in percent, must add up to 100
+    private static final Map<String, Integer> MIX = new LinkedHashMap<>();
+
+    static {
+        MIX.put("search", 40);
+        MIX.put("get", 20);
+        MIX.put("page", 10);
+        MIX.put("create", 10);
+        MIX.put("update", 10);
+        MIX.put("delete", 5);
+        MIX.put("export-json", 5);
+    }
+
+    // Operations that need an existing contact ID
+    private static final Set<String> ID_OPERATIONS =
+            new HashSet<>(Arrays.asList("get", "update", "delete"));
+
+    private static final String[] SEARCH_TERMS =
+            {"smith", "wang", "work", "555", "example.com", "vip", "ma", "oak"};
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ContactService contactService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final Map<String, List<Long>> latencies = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> errors = new ConcurrentHashMap<>();
+    private final List<Long> knownIds = new CopyOnWriteArrayList<>();
+
+    @Test
+    void mixedWorkloadAtTargetRate() throws Exception {
+        if (CONTACTS > 0) {
+            contactService.generateContacts(CONTACTS, SEED);
+        }
+        knownIds.addAll(firstIds());
+
+        RestTemplate client = new RestTemplate(new SimpleClientHttpRequestFactory());
+        String baseUrl = "http://localhost:" + port + "/contacts";
+        ContactDataGenerator generator = new ContactDataGenerator(SEED + 1);
+        Random random = new Random(SEED);
+        ExecutorService workers = Executors.newFixedThreadPool(WORKERS);
+
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / RATE;
+        long total = (long) RATE * DURATION_SECONDS;
+        long started = System.nanoTime();
+        for (long i = 0; i < total; i++) {
+            // Requests are issued on schedule whether or not earlier ones finished, and latency is
+            // measured from the scheduled time, so a stalled server shows up in the percentiles
+            long scheduled = started + i * intervalNanos;
+            long wait = scheduled - System.nanoTime();
+            if (wait > 0) {
+                TimeUnit.NANOSECONDS.sleep(wait);
+            }
+            String operation = pickOperation(random);
+            Runnable request = buildRequest(operation, client, baseUrl, generator, random);
+            workers.execute(() -> run(operation, scheduled, request));
+        }
+        workers.shutdown();
+        workers.awaitTermination(5, TimeUnit.MINUTES);
+        double elapsedSeconds = (System.nanoTime() - started) / 1e9;
+
+        Map<String, Object> report = report(elapsedSeconds);
+        File reportFile = new File("target", "loadtest-report.json");
+        reportFile.getParentFile().mkdirs();
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(reportFile, report);
+        log.info("Load test report written to {}:\n{}", reportFile.getAbsolutePath(),
+                objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(report));
+
+        long failed = errors.values().stream().mapToLong(AtomicInteger::get).sum();
+        assertTrue(failed <= total * (1 - MIN_SUCCESS_RATE),
+                failed + " of " + total + " requests failed");
+    }
+
+    private void run(String operation, long scheduled, Runnable request) {
+        try {
+            request.run();
+            latencies.computeIfAbsent(
+                    operation, o -> Collections.synchronizedList(new ArrayList<>()))
+                    .add(System.nanoTime() - scheduled);
+        } catch (RestClientException e) {
+            errors.computeIfAbsent(operation, o -> new AtomicInteger()).incrementAndGet();
+        }
+    }
+
+    // The random choices are made on the issuing thread so a seed replays the same request sequence
+    private Runnable buildRequest(String operation, RestTemplate client, String baseUrl,
+                                  ContactDataGenerator generator, Random random) {
+        switch (operation) {
+            case "search": {
+                String term = SEARCH_TERMS[random.nextInt(SEARCH_TERMS.length)];
+                return () -> client.getForObject(
+                        baseUrl + "/search?keyword={term}", String.class, term);
+            }
+            case "get": {
+                Long id = randomId(random);
+                return () -> client.getForObject(baseUrl + "/{id}", String.class, id);
+            }
+            case "page": {
+                Long after = knownIds.isEmpty() ? null : randomId(random);
+                return () -> client.getForObject(
+                        baseUrl + "?after={after}&limit=50", String.class, after);
+            }
+            case "create": {
+                ContactRequestDTO contact = generator.next();
+                return () -> {
+                    ContactDTO created = client.postForObject(baseUrl, contact, ContactDTO.class);
+                    if (created != null) {
+                        knownIds.add(created.getId());
+                    }
+                };
+            }
+            case "update": {
+                Long id = randomId(random);
+                ContactRequestDTO contact = generator.next();
+                return () -> client.put(baseUrl + "/{id}", contact, id);
+            }
+            case "delete": {
+                Long id = knownIds.remove(random.nextInt(knownIds.size()));
+                return () -> client.delete(baseUrl + "/{id}", id);
+            }
+            default:
+                return () -> client.getForObject(baseUrl + "/export/json", byte[].class);
+        }
+    }
+
+    private Long randomId(Random random) {
+        return knownIds.get(random.nextInt(knownIds.size()));
+    }
+
+    private String pickOperation(Random random) {
+        int roll = random.nextInt(100);
+        String operation = "search";
+        for (Map.Entry<String, Integer> entry : MIX.entrySet()) {
+            roll -= entry.getValue();
+            if (roll < 0) {
+                operation = entry.getKey();
+                break;
+            }
+        }
+        // Deletes can use up every known ID, create one before reading or writing by ID again
+        if (knownIds.isEmpty() && ID_OPERATIONS.contains(operation)) {
+            return "create";
+        }
+        return operation;
+    }
+
+    private List<Long> firstIds() {
+        List<Long> ids = new ArrayList<>();
+        Long after = null;
+        do {
+            ContactPageDTO page = contactService.getContactsPage(after, 500);
+            page.getContacts().forEach(contact -> ids.add(contact.getId()));
+            after = page.getNext();
+        } while (after != null);
+        return ids;
+    }
+
+    private Map<String, Object> report(double elapsedSeconds) {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("targetRate", RATE);
+        report.put("durationSeconds", DURATION_SECONDS);
+        report.put("contacts", CONTACTS);
+        report.put("seed", SEED);
+
+        long completed = 0;
+        Map<String, Object> operations = new LinkedHashMap<>();
+        for (String operation : MIX.keySet()) {
+            List<Long> samples =
+                    new ArrayList<>(latencies.getOrDefault(operation, Collections.emptyList()));
+            Collections.sort(samples);
+            completed += samples.size();
+
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("completed", samples.size());
+            stats.put("errors", errors.getOrDefault(operation, new AtomicInteger()).get());
+            stats.put("throughputPerSecond", round(samples.size() / elapsedSeconds));
+            stats.put("p50Millis", round(percentileMillis(samples, 50)));
+            stats.put("p90Millis", round(percentileMillis(samples, 90)));
+            stats.put("p99Millis", round(percentileMillis(samples, 99)));
+            stats.put("p999Millis", round(percentileMillis(samples, 99.9)));
+            stats.put("maxMillis",
+                    round(samples.isEmpty() ? 0 : samples.get(samples.size() - 1) / 1e6));
+            operations.put(operation, stats);
+        }
+        report.put("throughputPerSecond", round(completed / elapsedSeconds));
+        report.put("operations", operations);
+        return report;
+    }
+
+    private static double percentileMillis(List<Long> sorted, double percentile) {
+        if (sorted.isEmpty()) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile / 100 * sorted.size()) - 1;
+        return sorted.get(Math.max(0, Math.min(index, sorted.size() - 1))) / 1e6;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+}
@@ -0,0 +1,693 @@
+package com.teamxp.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.teamxp.dto.BatchCreateResultDTO;
+import com.teamxp.dto.ContactChangesDTO;
+import com.teamxp.dto.ContactDTO;
+import com.teamxp.dto.ContactPageDTO;
+import com.teamxp.dto.ContactRequestDTO;
+import com.teamxp.dto.ContactStatsDTO;
+import com.teamxp.dto.DuplicateReportDTO;
+import com.teamxp.dto.ImportSummaryDTO;
+import com.teamxp.dto.NameIndexEntryDTO;
+import com.teamxp.dto.TagCountDTO;
+import com.teamxp.entity.Contact;
+import com.teamxp.repository.ContactRepository;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManagerFactory;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class ContactServiceImplTests {
+
+    private static final String XLSX_CONTENT_TYPE =
+            "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
+
+    @Autowired
+    private ContactService contactService;
+
+    @Autowired
+    private ContactRepository contactRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ContactDuplicateFinder duplicateFinder;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        // Through the service, so the caches and indexes are cleared along with the rows
+        contactService.deleteAllContacts();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    void tearDown() {
+        contactService.deleteAllContacts();
+    }
+
+    @Test
+    void listReadsRunSameNumberOfQueriesAsContactsGrow() {
+        createContacts(5);
+        long allSmall = countStatements(() -> contactService.getAllContacts());
+        long favoritesSmall = countStatements(() -> contactService.getFavoriteContacts());
+        long searchSmall = countStatements(() -> contactService.searchContacts("Batch", null, 100));
+        long pageSmall = countStatements(() -> contactService.getContactsPage(null, 100));
+
+        createContacts(60);
+        long allLarge = countStatements(() -> contactService.getAllContacts());
+        long favoritesLarge = countStatements(() -> contactService.getFavoriteContacts());
+        long searchLarge = countStatements(() -> contactService.searchContacts("Batch", null, 100));
+        long pageLarge = countStatements(() -> contactService.getContactsPage(null, 100));
+
+        assertEquals(allSmall, allLarge);
+        assertEquals(favoritesSmall, favoritesLarge);
+        assertEquals(searchSmall, searchLarge);
+        assertEquals(pageSmall, pageLarge);
+    }
+
+    @Test
+    void renamePatchCostsSameNumberOfStatementsRegardlessOfTagCount() {
+        ContactDTO fewTags = createContactWithTags(2);
+        ContactDTO manyTags = createContactWithTags(20);
+
+        long fewTagsStatements =
+                countStatements(() -> contactService.patchContact(fewTags.getId(), renamePatch()));
+        long manyTagsStatements =
+                countStatements(() -> contactService.patchContact(manyTags.getId(), renamePatch()));
+
+        assertEquals(fewTagsStatements, manyTagsStatements);
+        ContactDTO patched = contactService.getContactById(manyTags.getId());
+        assertEquals("Renamed", patched.getName());
+        assertEquals(manyTags.getTags(), patched.getTags());
+    }
+
+    @Test
+    void updateAndPatchReplaceCollectionsOutsideAWebRequest() {
+        ContactDTO contact = createContactWithTags(3);
+
+        ContactRequestDTO update = new ContactRequestDTO();
+        update.setName("Updated Contact");
+        update.setPhones(Arrays.asList("555-600-0001", "555-600-0002"));
+        update.setEmails(Arrays.asList("updated@example.com"));
+        update.setTags(Arrays.asList("Tag0", "Replaced"));
+        contactService.updateContact(contact.getId(), update);
+
+        ContactDTO updated = contactService.getContactById(contact.getId());
+        assertEquals(Arrays.asList("555-600-0001", "555-600-0002"), updated.getPhones());
+        assertEquals(Arrays.asList("updated@example.com"), updated.getEmails());
+        assertEquals(Arrays.asList("Tag0", "Replaced"), updated.getTags());
+
+        ObjectNode patch = objectMapper.createObjectNode();
+        patch.putArray("tags").add("Patched");
+        patch.putArray("phones").add("555-600-0003");
+        contactService.patchContact(contact.getId(), patch);
+
+        ContactDTO patched = contactService.getContactById(contact.getId());
+        assertEquals(Arrays.asList("555-600-0003"), patched.getPhones());
+        assertEquals(Arrays.asList("Patched"), patched.getTags());
+        assertEquals(Arrays.asList("updated@example.com"), patched.getEmails());
+    }
+
+    @Test
+    void phoneLookupMatchesNormalizedAndTrailingDigits() {
+        ContactRequestDTO request = new ContactRequestDTO();
+        request.setName("Caller");
+        request.setPhones(Arrays.asList("(202) 555-0178"));
+        ContactDTO caller = contactService.createContact(request);
+
+        assertEquals(caller.getId(),
+                contactService.findContactsByPhone("202.555.0178").get(0).getId());
+        assertEquals(caller.getId(),
+                contactService.findContactsByPhone("+1-202-555-0178").get(0).getId());
+        assertTrue(contactService.findContactsByPhone("0178").isEmpty());
+
+        Map<String, List<ContactDTO>> resolved = contactService.findContactsByPhones(
+                Arrays.asList("+12025550178", "+1-303-555-0100"));
+        assertEquals(1, resolved.get("+12025550178").size());
+        assertTrue(resolved.get("+1-303-555-0100").isEmpty());
+    }
+
+    @Test
+    void duplicatesAreClusteredAndMergedIntoSurvivor() {
+        ContactDTO first = createContact(
+                "Jon Smith", "202-555-0178", "jon@example.com", "Work", "Met at conference");
+        ContactDTO second = createContact(
+                "John Smith", "202.555.0178", "JON@example.com", "Golf", "Plays on Sundays");
+        createContact("Alice Jones", "303-555-0100", "alice@example.com", "Work", null);
+
+        DuplicateReportDTO report = duplicateFinder.findDuplicates(null);
+        assertEquals(3, report.getScannedContacts());
+        assertEquals(1, report.getClusters().size());
+        assertEquals(Arrays.asList(first.getId(), second.getId()),
+                report.getClusters().get(0).getContactIds());
+        assertEquals(first.getId(), report.getClusters().get(0).getSuggestedSurvivorId());
+
+        ContactDTO merged =
+                contactService.mergeContacts(first.getId(), Arrays.asList(second.getId()));
+        assertEquals(Arrays.asList("202-555-0178"), merged.getPhones());
+        assertEquals(Arrays.asList("jon@example.com"), merged.getEmails());
+        assertEquals(Arrays.asList("Work", "Golf"), merged.getTags());
+        assertEquals("Met at conference\nPlays on Sundays", merged.getNotes());
+        assertFalse(contactRepository.existsById(second.getId()));
+        assertTrue(duplicateFinder.findDuplicates(null).getClusters().isEmpty());
+    }
+
+    @Test
+    void soundAlikeNamesMatchOnAddressOrEmailLocalPart() {
+        // No shared phone or email, only the phonetic name block links each pair
+        ContactDTO catherine = createContactAt("Catherine Smith", "555-310-0001",
+                "cat@example.com", "12 Elm Street, Springfield");
+        ContactDTO kathryn = createContactAt("Kathryn Smyth", "555-310-0002",
+                "k.smyth@example.org", "12 elm street springfield");
+        ContactDTO alice = createContactAt("Alice Miller", "555-310-0003",
+                "alice.miller@work.example", null);
+        ContactDTO alicia = createContactAt("Alicia Muller", "555-310-0004",
+                "alice.miller@home.example", null);
+        // Sounds alike without a second signal, and a neighbour who only shares the address
+        createContactAt("Catherine Smyth", "555-310-0005", "cs@example.net", "9 Oak Road");
+        createContactAt("Bob Stone", "555-310-0006", "bob@example.com", "12 Elm Street");
+
+        DuplicateReportDTO report = duplicateFinder.findDuplicates(null);
+        assertEquals(2, report.getClusters().size());
+        assertEquals(Arrays.asList(catherine.getId(), kathryn.getId()),
+                report.getClusters().get(0).getContactIds());
+        assertEquals(Arrays.asList(alice.getId(), alicia.getId()),
+                report.getClusters().get(1).getContactIds());
+        assertEquals(2, report.getDuplicateContacts());
+    }
+
+    @Test
+    void tagCountsFollowCreateToggleUpdateAndDelete() {
+        ContactDTO first =
+                createContact("Facet One", "555-300-0001", "one@example.com", "FacetWork", null);
+        ContactDTO second =
+                createContact("Facet Two", "555-300-0002", "two@example.com", "FacetWork", null);
+        assertTagCount("FacetWork", 2, 0);
+
+        contactService.toggleFavorite(first.getId());
+        assertTagCount("FacetWork", 2, 1);
+
+        ContactRequestDTO retag = new ContactRequestDTO();
+        retag.setName("Facet Two");
+        retag.setPhones(Arrays.asList("555-300-0002"));
+        retag.setTags(Arrays.asList("FacetHome"));
+        contactService.updateContact(second.getId(), retag);
+        assertTagCount("FacetWork", 1, 1);
+        assertTagCount("FacetHome", 1, 0);
+
+        contactService.deleteContact(first.getId());
+        assertFalse(contactService.getTagCounts().stream()
+                .anyMatch(count -> count.getTag().equals("FacetWork")));
+    }
+
+    @Test
+    void toggleFavoriteOfACachedContactRunsOneStatementWithoutEviction() {
+        ContactDTO contact = createContact(
+                "Toggle Me", "555-310-0001", "toggle@example.com", "Toggle", null);
+        Long id = contact.getId();
+        warmCaches(id);
+
+        ContactDTO[] toggled = new ContactDTO[1];
+        assertEquals(1, countStatements(() -> toggled[0] = contactService.toggleFavorite(id)));
+        assertTrue(toggled[0].getIsFavorite());
+        assertEquals(Arrays.asList("555-310-0001"), toggled[0].getPhones());
+        // Both caches were updated in place, so the reads after the toggle run no statements
+        ContactDTO[] read = new ContactDTO[1];
+        assertEquals(0, countStatements(() -> read[0] = contactService.getContactById(id)));
+        assertTrue(read[0].getIsFavorite());
+        assertEquals(0, countStatements(() -> contactService.getFavoriteContacts()));
+        assertEquals(Arrays.asList(id), favoriteIds());
+        assertTagCount("Toggle", 1, 1);
+
+        assertFalse(contactService.toggleFavorite(id).getIsFavorite());
+        assertFalse(contactService.getContactById(id).getIsFavorite());
+
+        // The row changed behind the cache: the conditional UPDATE misses and the stored flag
+        // is toggled instead
+        contactRepository.updateFavoriteByIds(Arrays.asList(id), true, new Date());
+        assertFalse(contactService.toggleFavorite(id).getIsFavorite());
+        assertFalse(contactService.getContactById(id).getIsFavorite());
+        assertTrue(favoriteIds().isEmpty());
+    }
+
+    @Test
+    void cachedContactAndFavoritesFollowEveryWrite() {
+        ContactDTO first =
+                createContact("Cached One", "555-320-0001", "one@example.com", "Cached", null);
+        ContactDTO second =
+                createContact("Cached Two", "555-320-0002", "two@example.com", "Cached", null);
+        Long id = first.getId();
+
+        // Each write follows reads that put the contact and the favorites list in the caches
+        warmCaches(id);
+        ContactRequestDTO update = new ContactRequestDTO();
+        update.setName("Cached Updated");
+        update.setPhones(Arrays.asList("555-320-0003"));
+        update.setIsFavorite(true);
+        contactService.updateContact(id, update);
+        assertEquals("Cached Updated", contactService.getContactById(id).getName());
+        assertEquals(Arrays.asList("555-320-0003"), contactService.getContactById(id).getPhones());
+        assertTrue(favoriteIds().contains(id));
+
+        warmCaches(id);
+        ObjectNode patch = objectMapper.createObjectNode();
+        patch.put("name", "Cached Patched");
+        patch.put("isFavorite", false);
+        contactService.patchContact(id, patch);
+        assertEquals("Cached Patched", contactService.getContactById(id).getName());
+        assertFalse(favoriteIds().contains(id));
+
+        warmCaches(id);
+        contactService.toggleFavorite(id);
+        assertTrue(contactService.getContactById(id).getIsFavorite());
+        assertTrue(favoriteIds().contains(id));
+
+        contactService.toggleFavorite(second.getId());
+        warmCaches(second.getId());
+        contactService.mergeContacts(id, Arrays.asList(second.getId()));
+        assertEquals(Arrays.asList("555-320-0003", "555-320-0002"),
+                contactService.getContactById(id).getPhones());
+        assertThrows(RuntimeException.class, () -> contactService.getContactById(second.getId()));
+        assertEquals(Arrays.asList(id), favoriteIds());
+
+        warmCaches(id);
+        contactService.deleteContact(id);
+        assertThrows(RuntimeException.class, () -> contactService.getContactById(id));
+        assertTrue(favoriteIds().isEmpty());
+    }
+
+    @Test
+    void tagFilterCombinesTagsFavoritesAndCursor() {
+        ContactDTO work = createContact(
+                "Filter Work", "555-400-0001", "work@example.com", "FilterWork", null);
+        ContactDTO vip =
+                createContact("Filter Vip", "555-400-0002", "vip@example.com", "FilterVip", null);
+        ContactRequestDTO both = new ContactRequestDTO();
+        both.setName("Filter Both");
+        both.setPhones(Arrays.asList("555-400-0003"));
+        both.setTags(Arrays.asList("FilterWork", "FilterVip"));
+        both.setIsFavorite(true);
+        ContactDTO bothContact = contactService.createContact(both);
+
+        List<String> tags = Arrays.asList("FilterWork", "FilterVip");
+        assertEquals(Arrays.asList(bothContact.getId()),
+                ids(contactService.filterContacts(tags, true, null, null, 10)));
+        assertEquals(Arrays.asList(work.getId(), vip.getId(), bothContact.getId()),
+                ids(contactService.filterContacts(tags, false, null, null, 10)));
+        assertEquals(Arrays.asList(work.getId(), vip.getId()),
+                ids(contactService.filterContacts(tags, false, false, null, 10)));
+
+        ContactPageDTO first = contactService.filterContacts(tags, false, null, null, 2);
+        assertEquals(vip.getId(), first.getNext());
+        assertEquals(Arrays.asList(bothContact.getId()),
+                ids(contactService.filterContacts(tags, false, null, first.getNext(), 2)));
+    }
+
+    @Test
+    void sortedListingPagesByNameKeyAndJumpsByInitial() {
+        ContactDTO emile =
+                createContact("Émile", "555-500-0001", "emile@example.com", "Sorted", null);
+        ContactDTO bob = createContact("Bob", "555-500-0002", "bob@example.com", "Sorted", null);
+        ContactDTO anna = createContact("anna", "555-500-0003", "anna@example.com", "Sorted", null);
+        ContactDTO zed = createContact("Zed", "555-500-0004", "zed@example.com", "Sorted", null);
+
+        ContactPageDTO first = contactService.getContactsPage("name", null, 2);
+        assertEquals(Arrays.asList(anna.getId(), bob.getId()), ids(first));
+        assertEquals(Arrays.asList(emile.getId(), zed.getId()),
+                ids(contactService.getContactsPage("name", first.getNextCursor(), 2)));
+        assertEquals(Arrays.asList(zed.getId(), anna.getId(), bob.getId(), emile.getId()),
+                ids(contactService.getContactsPage("-createdAt", null, 10)));
+
+        List<NameIndexEntryDTO> index = contactService.getNameIndex();
+        assertEquals(Arrays.asList("A", "B", "E", "Z"), index.stream()
+                .map(NameIndexEntryDTO::getInitial)
+                .collect(Collectors.toList()));
+        assertEquals(Arrays.asList(emile.getId(), zed.getId()),
+                ids(contactService.getContactsPage("name", index.get(2).getCursor(), 10)));
+        // Letter cursors are sort=name cursors, other orders refuse them instead of misreading them
+        String letterCursor = index.get(2).getCursor();
+        assertThrows(IllegalArgumentException.class,
+                () -> contactService.getContactsPage("-name", letterCursor, 10));
+        assertThrows(IllegalArgumentException.class,
+                () -> contactService.getContactsPage("createdAt", letterCursor, 10));
+    }
+
+    @Test
+    void excelRoundTripKeepsFieldsAndReportsUnparseableRows() throws Exception {
+        ContactRequestDTO full = new ContactRequestDTO();
+        full.setName("Excel Full");
+        full.setPhones(Arrays.asList("555-900-0001", "555-900-0002", "555-900-0003"));
+        full.setEmails(Arrays.asList("full@example.com", "full.work@example.com"));
+        full.setAddress("1 Spreadsheet Way");
+        full.setIsFavorite(true);
+        full.setTags(Arrays.asList("Excel", "Work", "Gym"));
+        full.setNotes("Multi-value cells");
+        contactService.createContact(full);
+        // Only the required cells are filled, the rest are exported empty
+        ContactRequestDTO sparse = new ContactRequestDTO();
+        sparse.setName("Excel Sparse");
+        sparse.setPhones(Arrays.asList("555-900-0004"));
+        contactService.createContact(sparse);
+        List<ContactDTO> exported = contactService.getAllContacts();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        contactService.exportContactsToExcel(out);
+        // Add a row without a phone after the exported ones, the import must skip and report it
+        ByteArrayOutputStream edited = new ByteArrayOutputStream();
+        try (XSSFWorkbook workbook =
+                     new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()))) {
+            Row row = workbook.getSheetAt(0).createRow(3);
+            row.createCell(1).setCellValue("No Phone");
+            workbook.write(edited);
+        }
+
+        contactService.deleteAllContacts();
+        ImportSummaryDTO summary = contactService.importContactsFromExcel(new MockMultipartFile(
+                "file", "contacts.xlsx", XLSX_CONTENT_TYPE, edited.toByteArray()));
+
+        assertEquals(2, summary.getImported());
+        assertEquals(1, summary.getFailed());
+        assertEquals(Arrays.asList(4), summary.getFailedRows());
+        assertSameContacts(exported, contactService.getAllContacts());
+    }
+
+    @Test
+    void batchCreateWritesFiveHundredRowsInBatchedStatements() {
+        List<ContactRequestDTO> requests = bulkRequests(500);
+
+        BatchCreateResultDTO[] created = new BatchCreateResultDTO[1];
+        long statements =
+                countStatements(() -> created[0] = contactService.createContacts(requests));
+
+        assertEquals(500, created[0].getCreatedIds().size());
+        assertTrue(created[0].getErrors().isEmpty());
+        // One JDBC-batched insert per table (contacts, phones, emails, tags) plus a sequence call
+        // per 50 IDs, one more when the batch starts inside a block
+        long expected = 4 + 500 / 50;
+        assertTrue(statements >= expected && statements <= expected + 1,
+                "Expected about " + expected + " statements but ran " + statements);
+    }
+
+    @Test
+    void oneBadRowDoesNotDropTheRestOfItsBatch() throws Exception {
+        // Passes validation but overflows the address column, so the batch insert fails
+        List<ContactRequestDTO> requests = bulkRequests(500);
+        requests.get(137).setAddress(String.join("", Collections.nCopies(600, "x")));
+
+        BatchCreateResultDTO created = contactService.createContacts(requests);
+        assertEquals(499, created.getCreatedIds().size());
+        assertEquals(1, created.getErrors().size());
+        assertEquals(137, created.getErrors().get(0).getIndex());
+
+        // Imports go through the same batching, rows are array indexes for JSON
+        contactService.deleteAllContacts();
+        ImportSummaryDTO imported = contactService.importContactsFromJson(
+                new ByteArrayInputStream(objectMapper.writeValueAsBytes(requests)));
+        assertEquals(499, imported.getImported());
+        assertEquals(Arrays.asList(137), imported.getFailedRows());
+        assertEquals(499, contactService.getStatistics().getTotalContacts());
+    }
+
+    @Test
+    void jsonRoundTripKeepsFieldsAndReportsMalformedElements() throws Exception {
+        createContacts(6);
+        ContactRequestDTO withAddress = new ContactRequestDTO();
+        withAddress.setName("Json Address");
+        withAddress.setPhones(Arrays.asList("555-920-0001"));
+        withAddress.setAddress("2 Parser Lane");
+        withAddress.setNotes("Line one\nLine \"two\"");
+        contactService.createContact(withAddress);
+        List<ContactDTO> exported = contactService.getAllContacts();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        contactService.exportContactsToJson(out);
+        String json = out.toString("UTF-8");
+        // An element that cannot bind (phones is an object) fails alone, the rest still import
+        String withMalformed = "[{\"name\":\"Broken\",\"phones\":{\"home\":\"555\"}},"
+                + json.substring(json.indexOf('[') + 1);
+
+        contactService.deleteAllContacts();
+        ImportSummaryDTO summary = contactService.importContactsFromJson(
+                new ByteArrayInputStream(withMalformed.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(7, summary.getImported());
+        assertEquals(Arrays.asList(0), summary.getFailedRows());
+        List<ContactDTO> imported = contactService.getAllContacts();
+        assertSameContacts(exported, imported);
+        assertNull(imported.get(0).getAddress());
+        assertEquals("2 Parser Lane", imported.get(6).getAddress());
+    }
+
+    private List<ContactRequestDTO> bulkRequests(int count) {
+        List<ContactRequestDTO> requests = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            ContactRequestDTO request = new ContactRequestDTO();
+            request.setName("Bulk Contact " + i);
+            request.setPhones(Arrays.asList("555-910-" + i, "555-911-" + i));
+            request.setEmails(Arrays.asList("bulk" + i + "@example.com"));
+            request.setTags(Arrays.asList("Bulk"));
+            requests.add(request);
+        }
+        return requests;
+    }
+
+    private List<Long> ids(ContactPageDTO page) {
+        List<Long> ids = new ArrayList<>();
+        for (ContactDTO contact : page.getContacts()) {
+            ids.add(contact.getId());
+        }
+        return ids;
+    }
+
+    // Field by field, IDs and timestamps are assigned anew on import
+    private void assertSameContacts(List<ContactDTO> expected, List<ContactDTO> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            ContactDTO want = expected.get(i);
+            ContactDTO got = actual.get(i);
+            assertEquals(want.getName(), got.getName());
+            assertEquals(want.getPhones(), got.getPhones());
+            assertEquals(want.getEmails(), got.getEmails());
+            assertEquals(want.getAddress(), got.getAddress());
+            assertEquals(want.getIsFavorite(), got.getIsFavorite());
+            assertEquals(want.getTags(), got.getTags());
+            assertEquals(want.getNotes(), got.getNotes());
+        }
+    }
+
+    private void warmCaches(Long id) {
+        contactService.getContactById(id);
+        contactService.getFavoriteContacts();
+    }
+
+    private List<Long> favoriteIds() {
+        return contactService.getFavoriteContacts().stream()
+                .map(ContactDTO::getId)
+                .collect(Collectors.toList());
+    }
+
+    private void assertTagCount(String tag, long count, long favoriteCount) {
+        TagCountDTO tagCount = contactService.getTagCounts().stream()
+                .filter(candidate -> candidate.getTag().equals(tag))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("No count for tag " + tag));
+        assertEquals(count, tagCount.getCount());
+        assertEquals(favoriteCount, tagCount.getFavoriteCount());
+    }
+
+    private JsonNode renamePatch() {
+        ObjectNode patch = objectMapper.createObjectNode();
+        patch.put("name", "Renamed");
+        return patch;
+    }
+
+    private ContactDTO createContactWithTags(int tagCount) {
+        ContactRequestDTO request = new ContactRequestDTO();
+        request.setName("Tagged Contact " + tagCount);
+        request.setPhones(Arrays.asList("555-200-" + tagCount));
+        List<String> tags = new ArrayList<>();
+        for (int i = 0; i < tagCount; i++) {
+            tags.add("Tag" + i);
+        }
+        request.setTags(tags);
+        return contactService.createContact(request);
+    }
+
+    private ContactDTO createContact(
+            String name, String phone, String email, String tag, String notes) {
+        ContactRequestDTO request = new ContactRequestDTO();
+        request.setName(name);
+        request.setPhones(Arrays.asList(phone));
+        request.setEmails(Arrays.asList(email));
+        request.setTags(Arrays.asList(tag));
+        request.setNotes(notes);
+        return contactService.createContact(request);
+    }
+
+    private ContactDTO createContactAt(String name, String phone, String email, String address) {
+        ContactRequestDTO request = new ContactRequestDTO();
+        request.setName(name);
+        request.setPhones(Arrays.asList(phone));
+        request.setEmails(Arrays.asList(email));
+        request.setAddress(address);
+        return contactService.createContact(request);
+    }
+
+    private long countStatements(Supplier<?> read) {
+        statistics.clear();
+        read.get();
+        return statistics.getPrepareStatementCount();
+    }
+
+    @Test
+    void statisticsAndDeleteAllWorkWithoutListingContacts() {
+        createContacts(7);
+
+        ContactStatsDTO stats = contactService.getStatistics();
+        assertEquals(7, stats.getTotalContacts());
+        assertEquals(4, stats.getFavoriteContacts());
+        assertEquals(14, stats.getTotalPhones());
+        assertEquals(7, stats.getTotalEmails());
+
+        assertEquals(7, contactService.deleteAllContacts());
+        assertEquals(0, contactService.getStatistics().getTotalContacts());
+    }
+
+    @Test
+    void searchReturnsEveryMatchPageByPage() {
+        createContacts(7);
+
+        List<Long> found = new ArrayList<>();
+        Long after = null;
+        do {
+            ContactPageDTO page = contactService.searchContacts("batch contact", after, 3);
+            assertTrue(page.getContacts().size() <= 3);
+            page.getContacts().forEach(contact -> found.add(contact.getId()));
+            after = page.getNext();
+        } while (after != null);
+        assertEquals(7, found.size());
+        assertEquals(7, found.stream().distinct().count());
+
+        // An empty keyword is the plain ID-ordered listing, paged the same way
+        ContactPageDTO all = contactService.searchContacts(" ", null, 5);
+        assertEquals(5, all.getContacts().size());
+        assertEquals(all.getContacts().get(4).getId(), all.getNext());
+    }
+
+    @Test
+    void writesDuringAnIndexRebuildAreNotLost() throws Exception {
+        createContacts(300);
+        List<Long> ids = contactService.getContactsPage(null, 300).getContacts().stream()
+                .map(ContactDTO::getId)
+                .collect(Collectors.toList());
+
+        ContactServiceImpl service =
+                (ContactServiceImpl) AopTestUtils.getTargetObject(contactService);
+        Thread rebuild = new Thread(service::rebuildSearchIndex);
+        rebuild.start();
+        for (int i = 0; i < 20; i++) {
+            ContactRequestDTO request = new ContactRequestDTO();
+            request.setName("Renamed " + i);
+            request.setPhones(Arrays.asList("555-700-" + i));
+            contactService.updateContact(ids.get(i), request);
+            contactService.deleteContact(ids.get(299 - i));
+        }
+        rebuild.join();
+
+        assertEquals(20, contactService.searchContacts("renamed", null, 100).getContacts().size());
+        List<Long> remaining = new ArrayList<>();
+        Long after = null;
+        do {
+            ContactPageDTO page = contactService.searchContacts("batch contact", after, 500);
+            page.getContacts().forEach(contact -> remaining.add(contact.getId()));
+            after = page.getNext();
+        } while (after != null);
+        assertEquals(ids.subList(20, 280), remaining);
+    }
+
+    @Test
+    void deltaSyncDoesNotSkipRowsOfALongWriteTransaction() throws Exception {
+        // A long import stamps its row first but commits after a later, quick write
+        CountDownLatch stamped = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread longImport = new Thread(() -> transactionTemplate.executeWithoutResult(status -> {
+            contactRepository.saveAndFlush(new Contact("Slow Import", Arrays.asList("555-800-0001"),
+                    Arrays.asList(), null));
+            stamped.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        longImport.start();
+        stamped.await();
+        createContacts(1);
+        Thread.sleep(ContactServiceImpl.SYNC_SETTLE_MILLIS + 200);
+
+        ContactChangesDTO first = contactService.getChangesSince(null, 50);
+        release.countDown();
+        longImport.join();
+        Thread.sleep(ContactServiceImpl.SYNC_SETTLE_MILLIS + 200);
+        ContactChangesDTO second = contactService.getChangesSince(first.getNextToken(), 50);
+
+        List<String> synced = new ArrayList<>();
+        first.getChanged().forEach(contact -> synced.add(contact.getName()));
+        second.getChanged().forEach(contact -> synced.add(contact.getName()));
+        assertTrue(synced.contains("Slow Import"), "Synced " + synced);
+        assertTrue(synced.contains("Batch Contact 0"), "Synced " + synced);
+    }
+
+    private void createContacts(int count) {
+        for (int i = 0; i < count; i++) {
+            ContactRequestDTO request = new ContactRequestDTO();
+            request.setName("Batch Contact " + i);
+            request.setPhones(Arrays.asList("555-000-" + i, "555-100-" + i));
+            request.setEmails(Arrays.asList("batch" + i + "@example.com"));
+            request.setTags(Arrays.asList("Batch", "Tag" + i));
+            request.setIsFavorite(i % 2 == 0);
+            contactService.createContact(request);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.teamxp.service;
+
+import com.teamxp.dto.ContactDTO;
+import com.teamxp.dto.TagCountDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ContactTagIndexTests {
+
+    private static final List<String> TAGS =
+            Arrays.asList("Family", "Work", "Gym", "School", "Club");
+
+    @Test
+    void incrementalCountsMatchARecountAfterRandomWrites() {
+        ContactTagIndex index = new ContactTagIndex();
+        Map<Long, ContactDTO> contacts = new HashMap<>();
+        Random random = new Random(7);
+
+        for (int step = 0; step < 5000; step++) {
+            long id = 1 + random.nextInt(200);
+            int operation = random.nextInt(4);
+            if (operation == 0 && contacts.containsKey(id)) {
+                index.remove(id);
+                contacts.remove(id);
+            } else if (operation == 1 && contacts.containsKey(id)) {
+                boolean favorite = random.nextBoolean();
+                index.setFavorite(Collections.singletonList(id), favorite);
+                contacts.get(id).setIsFavorite(favorite);
+            } else {
+                ContactDTO contact = new ContactDTO();
+                contact.setId(id);
+                contact.setIsFavorite(random.nextBoolean());
+                List<String> tags = new ArrayList<>();
+                for (String tag : TAGS) {
+                    if (random.nextInt(3) == 0) {
+                        tags.add(tag);
+                    }
+                }
+                contact.setTags(tags);
+                index.index(contact);
+                contacts.put(id, contact);
+            }
+        }
+
+        Map<String, long[]> expected = new TreeMap<>();
+        for (ContactDTO contact : contacts.values()) {
+            for (String tag : contact.getTags()) {
+                long[] count = expected.computeIfAbsent(tag, t -> new long[2]);
+                count[0]++;
+                if (contact.getIsFavorite()) {
+                    count[1]++;
+                }
+            }
+        }
+        Map<String, long[]> actual = new TreeMap<>();
+        for (TagCountDTO count : index.getCounts()) {
+            actual.put(count.getTag(), new long[]{count.getCount(), count.getFavoriteCount()});
+        }
+        assertEquals(expected.keySet(), actual.keySet());
+        for (String tag : expected.keySet()) {
+            assertEquals(expected.get(tag)[0], actual.get(tag)[0], tag);
+            assertEquals(expected.get(tag)[1], actual.get(tag)[1], tag);
+        }
+    }
+}
@@ -13,6 +13,13 @@ class ContactManager {
     this.currentSort = 'name-asc';
     this.searchKeyword = '';
     
+    // 分页状态（服务端游标分页）
+    this.pageSize = 50;
+    this.nextCursor = null;
+    this.loadedContacts = [];
+    // 当前分页中的搜索关键字，null表示普通列表
+    this.activeSearch = null;
+    
     // 防重复提交标志
     this.isSubmitting = false;
     this.isLoading = false;
@@ -689,10 +696,14 @@ class ContactManager {
         }
         
         this.isLoading = true;
+        this.activeSearch = null;
         
         try {
-            const contacts = await this.apiRequest('/contacts');
-            this.displayContacts(contacts);
+            const page = await this.apiRequest(`/contacts?${this.listQuery(null)}`);
+            this.loadedContacts = page.contacts;
+            this.nextCursor = this.nextPageCursor(page);
+            this.displayContacts(this.loadedContacts, this.serverSort() !== null);
+            this.renderLoadMoreButton();
         } catch (error) {
             console.error('加载联系人失败:', error);
             this.showMessage('无法从服务器加载联系人', 'error');
@@ -701,6 +712,87 @@ class ContactManager {
         }
     }
     
+    /**
+     * 加载下一页联系人
+     */
+    async loadMoreContacts() {
+        if (this.isLoading || this.nextCursor === null) {
+            return;
+        }
+        
+        this.isLoading = true;
+        
+        try {
+            const page = this.activeSearch !== null
+                ? await this.apiRequest(this.searchUrl(this.activeSearch, this.nextCursor))
+                : await this.apiRequest(`/contacts?${this.listQuery(this.nextCursor)}`);
+            this.loadedContacts = this.loadedContacts.concat(page.contacts);
+            this.nextCursor = this.nextPageCursor(page);
+            this.displayContacts(this.loadedContacts,
+                this.activeSearch === null && this.serverSort() !== null);
+            this.renderLoadMoreButton();
+        } catch (error) {
+            console.error('加载更多联系人失败:', error);
+            this.showMessage('无法加载更多联系人', 'error');
+        } finally {
+            this.isLoading = false;
+        }
+    }
+    
+    /**
+     * 当前排序对应的服务器端排序参数（收藏优先仍在客户端排序）
+     */
+    serverSort() {
+        const sorts = {
+            'name-asc': 'name',
+            'name-desc': '-name',
+            'date-newest': '-createdAt',
+            'date-oldest': 'createdAt'
+        };
+        return sorts[this.currentSort] || null;
+    }
+    
+    /**
+     * 列表分页查询参数：服务器排序使用游标字符串，否则使用ID游标
+     */
+    listQuery(cursor) {
+        const sort = this.serverSort();
+        let query = `limit=${this.pageSize}`;
+        if (sort !== null) {
+            query += `&sort=${encodeURIComponent(sort)}`;
+            if (cursor !== null) {
+                query += `&cursor=${encodeURIComponent(cursor)}`;
+            }
+        } else if (cursor !== null) {
+            query += `&after=${cursor}`;
+        }
+        return query;
+    }
+    
+    nextPageCursor(page) {
+        const sorted = this.activeSearch === null && this.serverSort() !== null;
+        const cursor = sorted ? page.nextCursor : page.next;
+        return cursor === undefined ? null : cursor;
+    }
+    
+    /**
+     * 显示“加载更多”按钮（仍有下一页时）
+     */
+    renderLoadMoreButton() {
+        const contactsList = document.getElementById('contactsList');
+        if (!contactsList || this.nextCursor === null) {
+            return;
+        }
+        
+        contactsList.insertAdjacentHTML('beforeend', `
+            <div class="load-more">
+                <button class="btn btn-primary" onclick="window.contactManager.loadMoreContacts()">
+                    <i class="fas fa-angle-double-down"></i> 加载更多
+                </button>
+            </div>
+        `);
+    }
+    
     /**
      * API请求辅助方法
      */
@@ -759,7 +851,7 @@ class ContactManager {
     /**
      * 显示联系人
      */
-    displayContacts(contacts = []) {
+    displayContacts(contacts = [], serverSorted = false) {
         const contactsList = document.getElementById('contactsList');
         const displayCount = document.getElementById('displayCount');
         
@@ -798,8 +890,8 @@ class ContactManager {
             return;
         }
         
-        // 应用排序
-        const sortedContacts = this.sortContactsList(contacts);
+        // 应用排序（服务器已排序的分页列表保持原顺序）
+        const sortedContacts = serverSorted ? contacts : this.sortContactsList(contacts);
         
         // 清除现有联系人列表
         contactsList.innerHTML = '';
@@ -990,14 +1082,24 @@ class ContactManager {
      */
     async showRecentContacts() {
         try {
-            const allContacts = await this.apiRequest('/contacts');
             const oneWeekAgo = new Date();
             oneWeekAgo.setDate(oneWeekAgo.getDate() - 7);
             
-            const recent = allContacts.filter(contact => {
-                const contactDate = new Date(contact.createdAt);
-                return contactDate >= oneWeekAgo;
-            });
+            // 按创建时间倒序分页，遇到一周前的联系人即停止
+            const recent = [];
+            let cursor = null;
+            do {
+                let query = `sort=-createdAt&limit=${this.pageSize}`;
+                if (cursor !== null) {
+                    query += `&cursor=${encodeURIComponent(cursor)}`;
+                }
+                const page = await this.apiRequest(`/contacts?${query}`);
+                const fresh = page.contacts.filter(contact =>
+                    new Date(contact.createdAt) >= oneWeekAgo);
+                recent.push(...fresh);
+                const allFresh = fresh.length === page.contacts.length;
+                cursor = allFresh && page.nextCursor ? page.nextCursor : null;
+            } while (cursor !== null);
             
             this.displayContacts(recent);
             this.currentFilter = 'recent';
@@ -1040,13 +1142,21 @@ class ContactManager {
         }
         
         try {
-            const results = await this.apiRequest(`/contacts/search?keyword=${encodeURIComponent(keyword)}`);
-            this.displayContacts(results);
-            
-            if (results.length === 0) {
+            // 搜索结果同样按ID游标分页，避免一次返回全部匹配
+            const page = await this.apiRequest(this.searchUrl(keyword, null));
+            this.activeSearch = keyword;
+            this.loadedContacts = page.contacts;
+            this.nextCursor = this.nextPageCursor(page);
+            this.displayContacts(this.loadedContacts);
+            this.renderLoadMoreButton();
+            
+            if (page.contacts.length === 0) {
                 this.showMessage(`未找到匹配 "${keyword}" 的联系人`, 'info');
+            } else if (this.nextCursor !== null) {
+                const shown = page.contacts.length;
+                this.showMessage(`显示前 ${shown} 个匹配 "${keyword}" 的联系人，可加载更多`, 'info');
             } else {
-                this.showMessage(`找到 ${results.length} 个匹配 "${keyword}" 的联系人`, 'info');
+                this.showMessage(`找到 ${page.contacts.length} 个匹配 "${keyword}" 的联系人`, 'info');
             }
             
         } catch (error) {
@@ -1054,6 +1164,14 @@ class ContactManager {
         }
     }
     
+    searchUrl(keyword, cursor) {
+        let url = `/contacts/search?keyword=${encodeURIComponent(keyword)}&limit=${this.pageSize}`;
+        if (cursor !== null) {
+            url += `&after=${cursor}`;
+        }
+        return url;
+    }
+    
     /**
      * 编辑联系人
      */
@@ -1143,8 +1261,11 @@ class ContactManager {
                 }
             }
             
-            // 更新统计信息
-            await this.updateStatistics();
+            // 本地调整收藏计数，无需重新统计
+            const favoriteElement = document.getElementById('favoriteContacts');
+            const favoriteCount = parseInt(favoriteElement.textContent, 10) || 0;
+            const delta = contact.isFavorite ? 1 : -1;
+            favoriteElement.textContent = Math.max(0, favoriteCount + delta);
             
         } catch (error) {
             console.error('切换收藏状态失败:', error);
@@ -1177,19 +1298,14 @@ class ContactManager {
      */
     async updateStatistics() {
         try {
-            const contacts = await this.apiRequest('/contacts');
-            
-            // 计算统计
-            const totalContacts = contacts.length;
-            const favoriteContacts = contacts.filter(c => c.isFavorite).length;
-            const totalPhones = contacts.reduce((sum, contact) => sum + (contact.phones ? contact.phones.length : 0), 0);
-            const totalEmails = contacts.reduce((sum, contact) => sum + (contact.emails ? contact.emails.length : 0), 0);
+            // 统计由服务器聚合计算，不下载联系人
+            const stats = await this.apiRequest('/contacts/stats');
             
             // 更新DOM
-            document.getElementById('totalContacts').textContent = totalContacts;
-            document.getElementById('favoriteContacts').textContent = favoriteContacts;
-            document.getElementById('totalPhones').textContent = totalPhones;
-            document.getElementById('totalEmails').textContent = totalEmails;
+            document.getElementById('totalContacts').textContent = stats.totalContacts;
+            document.getElementById('favoriteContacts').textContent = stats.favoriteContacts;
+            document.getElementById('totalPhones').textContent = stats.totalPhones;
+            document.getElementById('totalEmails').textContent = stats.totalEmails;
             
         } catch (error) {
             console.error('更新统计信息失败:', error);
@@ -1314,36 +1430,30 @@ class ContactManager {
             return;
         }
         
-        const reader = new FileReader();
-        reader.onload = async (e) => {
-            try {
-                const jsonContent = e.target.result;
-                
-                const importedContacts = await this.apiRequest('/contacts/import/json', {
-                    method: 'POST',
-                    body: jsonContent
-                });
-                
-                this.showMessage(`成功导入 ${importedContacts.length} 个联系人`, 'success');
-                
-                // 重新加载联系人
-                await this.loadAndDisplayContacts();
-                
-            } catch (error) {
-                console.error('导入JSON失败:', error);
-                this.showMessage(`导入失败: ${error.message}`, 'error');
+        try {
+            // 直接上传文件，服务端流式解析，无需先读入内存
+            const summary = await this.apiRequest('/contacts/import/json', {
+                method: 'POST',
+                body: file
+            });
+            
+            if (summary.failed > 0) {
+                this.showMessage(
+                    `成功导入 ${summary.imported} 个联系人，${summary.failed} 条导入失败`, 'warning');
+            } else {
+                this.showMessage(`成功导入 ${summary.imported} 个联系人`, 'success');
             }
             
+            // 重新加载联系人
+            await this.loadAndDisplayContacts();
+            
+        } catch (error) {
+            console.error('导入JSON失败:', error);
+            this.showMessage(`导入失败: ${error.message}`, 'error');
+        } finally {
             // 清除文件输入
             event.target.value = '';
-        };
-        
-        reader.onerror = () => {
-            this.showMessage('读取文件失败', 'error');
-            event.target.value = '';
-        };
-        
-        reader.readAsText(file);
+        }
     }
     
     /**
@@ -1374,9 +1484,14 @@ class ContactManager {
                 throw new Error(`导入失败: ${response.status}`);
             }
             
-            const importedContacts = await response.json();
+            const summary = await response.json();
             
-            this.showMessage(`成功导入 ${importedContacts.length} 个联系人`, 'success');
+            if (summary.failed > 0) {
+                this.showMessage(
+                    `成功导入 ${summary.imported} 个联系人，${summary.failed} 行导入失败`, 'warning');
+            } else {
+                this.showMessage(`成功导入 ${summary.imported} 个联系人`, 'success');
+            }
             
             // 重新加载联系人
             await this.loadAndDisplayContacts();
@@ -1395,26 +1510,26 @@ class ContactManager {
      */
     async clearAllContacts() {
         try {
-            const contacts = await this.apiRequest('/contacts');
+            const stats = await this.apiRequest('/contacts/stats');
             
-            if (contacts.length === 0) {
+            if (stats.totalContacts === 0) {
                 this.showMessage('没有联系人可清除', 'info');
                 return;
             }
             
-            if (!confirm(`确定要删除所有 ${contacts.length} 个联系人吗？此操作无法撤销！`)) {
+            const question = `确定要删除所有 ${stats.totalContacts} 个联系人吗？此操作无法撤销！`;
+            if (!confirm(question)) {
                 return;
             }
             
-            // 逐个删除所有联系人
-            for (const contact of contacts) {
-                await this.apiRequest(`/contacts/${contact.id}`, {
-                    method: 'DELETE'
-                });
-            }
+            // 由服务器分批删除所有联系人
+            await this.apiRequest('/contacts', {
+                method: 'DELETE'
+            });
             
             this.showMessage('所有联系人已清除', 'success');
             await this.loadAndDisplayContacts();
+            await this.updateStatistics();
             
         } catch (error) {
             console.error('清除联系人失败:', error);